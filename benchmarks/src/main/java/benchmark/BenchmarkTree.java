@@ -0,0 +1,142 @@
+package benchmark;
+
+import btree.GSBTree;
+import example.BPlusTree;
+import example.BTree;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 12:15
+ */
+
+/**
+ * The operations the benchmarks run, on one of the trees of btree-locking.
+ * Each JMH fork creates one kind only, so the calls stay monomorphic.
+ */
+public interface BenchmarkTree {
+
+    void insert(int key, double value);
+
+    Double search(int key);
+
+    void delete(int key);
+
+    /**
+     * @return number of values with lowerBound <= key <= upperBound
+     */
+    int range(int lowerBound, int upperBound);
+
+    /**
+     * @param impl: GSBTree, BPlusTree or BTree
+     * @param m: fanout; BTree is built with degree m / 2, i.e. at most m - 1 keys per node
+     * @return an empty tree
+     */
+    static BenchmarkTree create(String impl, int m) {
+        switch (impl) {
+            case "GSBTree":
+                return new GSB(m);
+            case "BPlusTree":
+                return new BPlus(m);
+            case "BTree":
+                return new Generic(m);
+            default:
+                throw new IllegalArgumentException("Unknown tree: " + impl);
+        }
+    }
+
+    final class GSB implements BenchmarkTree {
+
+        private final GSBTree<Integer, Double> tree;
+
+        GSB(int m) {
+            this(new GSBTree<>(m));
+        }
+
+        GSB(GSBTree<Integer, Double> tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public void insert(int key, double value) {
+            tree.insert(key, value);
+        }
+
+        @Override
+        public Double search(int key) {
+            return tree.search(key);
+        }
+
+        @Override
+        public void delete(int key) {
+            tree.delete(key);
+        }
+
+        @Override
+        public int range(int lowerBound, int upperBound) {
+            return tree.search(lowerBound, upperBound).size();
+        }
+    }
+
+    final class BPlus implements BenchmarkTree {
+
+        private final BPlusTree tree;
+
+        BPlus(int m) {
+            this.tree = new BPlusTree(m);
+        }
+
+        @Override
+        public void insert(int key, double value) {
+            tree.insert(key, value);
+        }
+
+        @Override
+        public Double search(int key) {
+            return tree.search(key);
+        }
+
+        @Override
+        public void delete(int key) {
+            tree.delete(key);
+        }
+
+        @Override
+        public int range(int lowerBound, int upperBound) {
+            return tree.search(lowerBound, upperBound).size();
+        }
+    }
+
+    final class Generic implements BenchmarkTree {
+
+        private final BTree<Integer, Double> tree;
+
+        Generic(int m) {
+            this.tree = new BTree<>(Math.max(2, m / 2));
+        }
+
+        @Override
+        public void insert(int key, double value) {
+            tree.put(key, value);
+        }
+
+        @Override
+        public Double search(int key) {
+            return tree.get(key);
+        }
+
+        @Override
+        public void delete(int key) {
+            tree.remove(key);
+        }
+
+        /* BTree has no range scan: one lookup per key in the range, what a caller would have to do */
+        @Override
+        public int range(int lowerBound, int upperBound) {
+            int count = 0;
+            for (int key = lowerBound; key <= upperBound; key++) {
+                if (tree.get(key) != null) { count++; }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 01:05
+ */
+
+/**
+ * Readers and writers on one shared GSBTree of keyCount keys:
+ * <ul>
+ *     <li>lookup: readers only, run with -t 1 ... 64</li>
+ *     <li>readWrite: 3 readers doing lookups per writer inserting and
+ *     deleting odd keys; with -t N, JMH runs N / 4 such groups, all on the
+ *     same tree. -tg sets another reader:writer split. Each writer owns the
+ *     keys of one residue class modulo the number of writers, so it only
+ *     deletes keys it inserted itself.</li>
+ * </ul>
+ * Every thread has its own key stream of the distribution. ScalabilityRunner
+ * runs both at 1, 2, 4 ... 64 threads and prints the scaling curve.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar ConcurrentTreeBenchmark.readWrite -t 16
+ *     java -cp benchmarks/target/benchmarks.jar benchmark.ScalabilityRunner ConcurrentTreeBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentTreeBenchmark {
+
+    private static final int STREAM = 1 << 16;
+    private static final int MASK = STREAM - 1;
+
+    @State(Scope.Benchmark)
+    public static class SharedTree {
+
+        @Param({"64"})
+        int m;
+
+        @Param({"1000000"})
+        int keyCount;
+
+        @Param({"uniform", "zipfian"})
+        String distribution;
+
+        BenchmarkTree tree;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            tree = TreeBenchmark.load("GSBTree", m, keyCount);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+
+        int[] keys;
+        /* The keys moved into the residue class of this thread as a writer */
+        int[] writeKeys;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(SharedTree shared, ThreadParams thread) {
+            keys = KeyDistribution.of(shared.distribution)
+                    .draw(shared.keyCount, STREAM, TreeBenchmark.SEED + thread.getThreadIndex());
+            int writers = thread.getGroupCount() * thread.getSubgroupThreadCount();
+            int writer = thread.getGroupIndex() * thread.getSubgroupThreadCount() + thread.getSubgroupThreadIndex();
+            writeKeys = new int[STREAM];
+            for (int i = 0; i < STREAM; i++) {
+                int key = keys[i] - keys[i] % writers + writer;
+                writeKeys[i] = (key < shared.keyCount) ? key : key - writers;
+            }
+        }
+
+        int next() {
+            return keys[cursor++ & MASK];
+        }
+    }
+
+    @Benchmark
+    public Double lookup(SharedTree shared, ThreadKeys keys) {
+        return shared.tree.search(2 * keys.next());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Double read(SharedTree shared, ThreadKeys keys) {
+        return shared.tree.search(2 * keys.next());
+    }
+
+    /* Inserts an odd key of its own on even calls and deletes it on odd calls, so the size stays the same */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void write(SharedTree shared, ThreadKeys keys) {
+        int key = 2 * keys.writeKeys[(keys.cursor >> 1) & MASK] + 1;
+        if ((keys.cursor++ & 1) == 0) {
+            shared.tree.insert(key, key);
+        } else {
+            shared.tree.delete(key);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package benchmark;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 12:10
+ */
+
+/**
+ * Order in which a benchmark touches the n keys of a tree, as indexes in
+ * [0, n). The streams are drawn before the measurement so that no random
+ * number generation is timed.
+ * <ul>
+ *     <li>uniform: every key equally likely</li>
+ *     <li>zipfian: YCSB's scrambled zipfian, theta 0.99; the hot keys are
+ *     spread over the whole key space instead of being neighbours</li>
+ *     <li>sequential: ascending, wrapping around</li>
+ * </ul>
+ */
+public enum KeyDistribution {
+
+    UNIFORM {
+        @Override
+        int[] draw(int n, int count, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] indexes = new int[count];
+            for (int i = 0; i < count; i++) {
+                indexes[i] = random.nextInt(n);
+            }
+            return indexes;
+        }
+    },
+
+    ZIPFIAN {
+        @Override
+        int[] draw(int n, int count, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            double zetaN = zeta(n);
+            double zeta2 = 1 + Math.pow(0.5, THETA);
+            double alpha = 1 / (1 - THETA);
+            double eta = (1 - Math.pow(2.0 / n, 1 - THETA)) / (1 - zeta2 / zetaN);
+            int[] indexes = new int[count];
+            for (int i = 0; i < count; i++) {
+                double u = random.nextDouble();
+                double uz = u * zetaN;
+                long rank;
+                if (uz < 1) {
+                    rank = 0;
+                } else if (uz < zeta2) {
+                    rank = 1;
+                } else {
+                    rank = Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+                }
+                indexes[i] = (int) Long.remainderUnsigned(scramble(rank), n);
+            }
+            return indexes;
+        }
+    },
+
+    SEQUENTIAL {
+        @Override
+        int[] draw(int n, int count, long seed) {
+            int[] indexes = new int[count];
+            int start = new SplittableRandom(seed).nextInt(n);
+            for (int i = 0; i < count; i++) {
+                indexes[i] = (start + i) % n;
+            }
+            return indexes;
+        }
+    };
+
+    private static final double THETA = 0.99;
+
+    /**
+     * @param n: number of keys
+     * @param count: length of the stream
+     * @param seed: seed of the stream
+     * @return count indexes in [0, n), repeats allowed
+     */
+    abstract int[] draw(int n, int count, long seed);
+
+    /**
+     * Distinct indexes in the order of the distribution, for inserts and
+     * deletes that should neither repeat nor miss. Indexes the stream
+     * does not reach soon enough are taken in ascending order.
+     * @param count: number of indexes, at most n
+     */
+    int[] distinct(int n, int count, long seed) {
+        BitSet seen = new BitSet(n);
+        int[] indexes = new int[count];
+        int found = 0;
+        for (int index : draw(n, count * 20, seed)) {
+            if (found == count) { break; }
+            if (!seen.get(index)) {
+                seen.set(index);
+                indexes[found++] = index;
+            }
+        }
+        for (int index = seen.nextClearBit(0); found < count; index = seen.nextClearBit(index + 1)) {
+            indexes[found++] = index;
+        }
+        return indexes;
+    }
+
+    public static KeyDistribution of(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    private static double zeta(long n) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, THETA);
+        }
+        return sum;
+    }
+
+    /* FNV-1a of the rank, as YCSB's ScrambledZipfianGenerator */
+    private static long scramble(long rank) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < 8; i++) {
+            hash ^= rank & 0xFF;
+            hash *= 0x100000001B3L;
+            rank >>>= 8;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,121 @@
+package benchmark;
+
+import btree.DictionaryPair;
+import btree.LeafNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 06:10
+ */
+
+/**
+ * Fills one leaf of order m with m - 1 pairs in random key order, then
+ * deletes them all in another random order; the score is per leaf.
+ * <ul>
+ *     <li>sort: the former GSBTree leaf maintenance, append and Arrays.sort
+ *     on every insert, a comparator binary search with a probe pair and a
+ *     null-aware sort of the whole dictionary on every delete</li>
+ *     <li>shift: LeafNode, a primitive binary search and System.arraycopy
+ *     to open or close the slot</li>
+ * </ul>
+ * TreeUpdateBenchmark shows the same on whole trees.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar LeafMaintenanceBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeafMaintenanceBenchmark {
+
+    private static final Comparator<DictionaryPair> NULLS_LAST = (o1, o2) -> {
+        if (o1 == null && o2 == null) { return 0; }
+        if (o1 == null) { return 1; }
+        if (o2 == null) { return -1; }
+        return o1.compareTo(o2);
+    };
+
+    @State(Scope.Thread)
+    public static class Pairs {
+
+        @Param({"16", "64", "256", "1024"})
+        int m;
+
+        DictionaryPair[] insertOrder;
+        int[] deleteOrder;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(TreeBenchmark.SEED);
+            int[] keys = shuffled(m - 1, random);
+            insertOrder = new DictionaryPair[m - 1];
+            for (int i = 0; i < keys.length; i++) {
+                insertOrder[i] = new DictionaryPair(keys[i], keys[i]);
+            }
+            deleteOrder = shuffled(m - 1, random);
+        }
+
+        private static int[] shuffled(int n, SplittableRandom random) {
+            int[] keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = 2 * i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = keys[i];
+                keys[i] = keys[j];
+                keys[j] = swap;
+            }
+            return keys;
+        }
+    }
+
+    @Benchmark
+    public DictionaryPair[] sort(Pairs pairs) {
+        DictionaryPair[] dictionary = new DictionaryPair[pairs.m];
+        int numPairs = 0;
+        for (DictionaryPair dp : pairs.insertOrder) {
+            dictionary[numPairs++] = dp;
+            Arrays.sort(dictionary, 0, numPairs);
+        }
+        Comparator<DictionaryPair> byKey = Comparator.naturalOrder();
+        for (int key : pairs.deleteOrder) {
+            int index = Arrays.binarySearch(dictionary, 0, numPairs, new DictionaryPair(key, 0), byKey);
+            dictionary[index] = null;
+            numPairs--;
+            Arrays.sort(dictionary, NULLS_LAST);
+        }
+        return dictionary;
+    }
+
+    @Benchmark
+    public LeafNode shift(Pairs pairs) {
+        LeafNode leaf = new LeafNode(pairs.m);
+        for (DictionaryPair dp : pairs.insertOrder) {
+            leaf.insert(dp);
+        }
+        for (int key : pairs.deleteOrder) {
+            leaf.delete(leaf.indexOf(key));
+        }
+        return leaf;
+    }
+}
@@ -0,0 +1,121 @@
+package benchmark;
+
+import lockmanager.LockManager;
+import lockmanager.LockMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 01:15
+ */
+
+/**
+ * Hierarchical locking through one shared LockManager, as a transaction on
+ * the tree does it: an intention lock on the tree, then a lock on one of
+ * `resources` keys, then releaseAll.
+ * <ul>
+ *     <li>shared: IS + S, readers only, run with -t 1 ... 64</li>
+ *     <li>sharedExclusive: 3 readers (IS + S) per writer (IX + X); with
+ *     -t N, JMH runs N / 4 such groups on the same LockManager</li>
+ * </ul>
+ * Fewer resources or a skewed distribution means more waiting.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar LockManagerBenchmark.sharedExclusive -t 16 -p resources=16
+ *     java -cp benchmarks/target/benchmarks.jar benchmark.ScalabilityRunner LockManagerBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LockManagerBenchmark {
+
+    private static final int STREAM = 1 << 16;
+    private static final int MASK = STREAM - 1;
+    private static final Object TREE = "tree";
+
+    @State(Scope.Benchmark)
+    public static class SharedLocks {
+
+        @Param({"16", "1024", "65536"})
+        int resources;
+
+        @Param({"uniform", "zipfian"})
+        String distribution;
+
+        @Param({"64"})
+        int stripes;
+
+        LockManager lockManager;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            lockManager = new LockManager(stripes);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Owner {
+
+        /* Boxed once, so that locking does not allocate */
+        Integer[] resources;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp(SharedLocks shared, ThreadParams thread) {
+            int[] keys = KeyDistribution.of(shared.distribution)
+                    .draw(shared.resources, STREAM, TreeBenchmark.SEED + thread.getThreadIndex());
+            resources = new Integer[STREAM];
+            for (int i = 0; i < STREAM; i++) {
+                resources[i] = keys[i];
+            }
+        }
+
+        Integer next() {
+            return resources[cursor++ & MASK];
+        }
+    }
+
+    @Benchmark
+    public void shared(SharedLocks shared, Owner owner) throws InterruptedException {
+        lock(shared.lockManager, owner, LockMode.INTENTION_SHARED, LockMode.SHARED);
+    }
+
+    @Benchmark
+    @Group("sharedExclusive")
+    @GroupThreads(3)
+    public void reader(SharedLocks shared, Owner owner) throws InterruptedException {
+        lock(shared.lockManager, owner, LockMode.INTENTION_SHARED, LockMode.SHARED);
+    }
+
+    @Benchmark
+    @Group("sharedExclusive")
+    @GroupThreads(1)
+    public void writer(SharedLocks shared, Owner owner) throws InterruptedException {
+        lock(shared.lockManager, owner, LockMode.INTENTION_EXCLUSIVE, LockMode.EXCLUSIVE);
+    }
+
+    private static void lock(LockManager lockManager, Owner owner, LockMode intention, LockMode mode)
+            throws InterruptedException {
+        lockManager.acquire(owner, TREE, intention);
+        lockManager.acquire(owner, owner.next(), mode);
+        lockManager.releaseAll(owner);
+    }
+}
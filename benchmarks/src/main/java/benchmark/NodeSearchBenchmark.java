@@ -0,0 +1,137 @@
+package benchmark;
+
+import btree.InternalNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 06:40
+ */
+
+/**
+ * Routing within one InternalNode of order m: the index of the child
+ * pointer to follow for a key, i.e. the number of the m - 1 keys that are
+ * not greater than it. Every invocation routes QUERIES random keys, so the
+ * comparisons are as unpredictable as on a real descent; the score is per
+ * key.
+ * <ul>
+ *     <li>linear: the former GSBTree scan, up to the first greater key</li>
+ *     <li>binary: InternalNode.childIndex, a binary search that halves the
+ *     range with a conditional move</li>
+ *     <li>eytzinger: the keys in breadth-first order of the implicit binary
+ *     search tree, so the next probes of a search share cache lines</li>
+ * </ul>
+ * TreeBenchmark.lookup shows the same on whole trees.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar NodeSearchBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeSearchBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @State(Scope.Thread)
+    public static class Node {
+
+        @Param({"16", "64", "256", "1024"})
+        int m;
+
+        int numKeys;
+        int[] keys;
+        int[] queries;
+
+        /* eytzinger[1..numKeys] holds the keys, rank[k] the sorted index of eytzinger[k] */
+        int[] eytzinger;
+        int[] rank;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(TreeBenchmark.SEED);
+            numKeys = m - 1;
+            keys = new int[m];
+            for (int i = 0; i < numKeys; i++) {
+                keys[i] = 2 * i + 1;
+            }
+            queries = new int[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                queries[i] = random.nextInt(2 * numKeys + 1);
+            }
+            eytzinger = new int[numKeys + 1];
+            rank = new int[numKeys + 1];
+            layOut(0, 1);
+        }
+
+        /* Fills the subtree rooted at k in order, from sorted index i; returns the next sorted index */
+        private int layOut(int i, int k) {
+            if (k <= numKeys) {
+                i = layOut(i, 2 * k);
+                eytzinger[k] = keys[i];
+                rank[k] = i++;
+                i = layOut(i, 2 * k + 1);
+            }
+            return i;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int linear(Node node) {
+        int sum = 0;
+        for (int key : node.queries) {
+            int i;
+            for (i = 0; i < node.numKeys; i++) {
+                if (key < node.keys[i]) { break; }
+            }
+            sum += i;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int binary(Node node) {
+        int sum = 0;
+        for (int key : node.queries) {
+            sum += InternalNode.childIndex(node.keys, node.numKeys, key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int eytzinger(Node node) {
+        int[] eytzinger = node.eytzinger;
+        int n = node.numKeys;
+        int sum = 0;
+        for (int key : node.queries) {
+            int k = 1;
+            while (k <= n) {
+                k = 2 * k + (eytzinger[k] <= key ? 1 : 0);
+            }
+            // Undo the right turns taken after the last left turn, which was at the first greater key
+            k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+            sum += (k == 0) ? n : node.rank[k];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,100 @@
+package benchmark;
+
+import btree.GSBTree;
+import btree.NodeSizing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 07:20
+ */
+
+/**
+ * Point lookups on a GSBTree loaded with keyCount keys, by node
+ * configuration:
+ * <ul>
+ *     <li>a number: that order for leaves and internal nodes alike, e.g. 3,
+ *     the default of GSBTree</li>
+ *     <li>256B, 1KiB, 4KiB, 16KiB: leaf and internal orders chosen by
+ *     GSBTree.forNodeSize, see NodeSizing</li>
+ * </ul>
+ * NodeSizeSweep runs it and adds the height and memory per entry of every
+ * configuration.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar NodeSizeBenchmark -p keyCount=10000000 -jvmArgs -Xmx8g
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NodeSizeBenchmark {
+
+    /* Length of the precomputed key stream, a power of two */
+    private static final int STREAM = 1 << 20;
+    private static final int MASK = STREAM - 1;
+
+    @State(Scope.Thread)
+    public static class Loaded {
+
+        @Param({"3", "64", "256B", "1KiB", "4KiB", "16KiB"})
+        String node;
+
+        @Param({"1000000"})
+        int keyCount;
+
+        @Param({"uniform"})
+        String distribution;
+
+        BenchmarkTree tree;
+        int[] keys;
+        int cursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            tree = TreeBenchmark.load(new BenchmarkTree.GSB(create(node)), keyCount);
+            keys = KeyDistribution.of(distribution).draw(keyCount, STREAM, TreeBenchmark.SEED);
+        }
+    }
+
+    /**
+     * @param node: an order, or a node size in B or KiB
+     * @return an empty tree of that configuration
+     */
+    static GSBTree<Integer, Double> create(String node) {
+        if (node.endsWith("KiB")) {
+            return GSBTree.forNodeSize(1024 * Integer.parseInt(node.substring(0, node.length() - 3)));
+        }
+        if (node.endsWith("B")) {
+            return GSBTree.forNodeSize(Integer.parseInt(node.substring(0, node.length() - 1)));
+        }
+        return new GSBTree<>(Integer.parseInt(node));
+    }
+
+    /**
+     * @param tree: a tree of create(node)
+     * @return the bytes of one full leaf and one internal node of the tree
+     */
+    static String nodeBytes(GSBTree<?, ?> tree) {
+        return NodeSizing.leafBytes(tree.getLeafOrder()) + "/" + NodeSizing.internalBytes(tree.getInternalOrder());
+    }
+
+    @Benchmark
+    public Double lookup(Loaded state) {
+        return state.tree.search(2 * state.keys[state.cursor++ & MASK]);
+    }
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import btree.GSBTree;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 07:35
+ */
+
+/**
+ * Runs NodeSizeBenchmark for every node configuration and prints, per
+ * configuration, the leaf and internal orders, the bytes of a leaf and an
+ * internal node, the height of the loaded tree, the lookup latency and the
+ * heap the tree takes per entry. The memory is measured in this JVM, on a
+ * tree loaded like the one of the benchmark; other JMH options follow the
+ * configurations.
+ * <pre>
+ *     java -cp benchmarks/target/benchmarks.jar benchmark.NodeSizeSweep [configurations] [jmh options]
+ *     java -DkeyCount=10000000 -Xmx8g -cp benchmarks/target/benchmarks.jar benchmark.NodeSizeSweep 16,4KiB,16KiB -jvmArgs -Xmx8g
+ * </pre>
+ */
+public class NodeSizeSweep {
+
+    public static void main(String[] args) throws Exception {
+        boolean hasNodes = args.length > 0 && !args[0].startsWith("-");
+        String[] nodes = hasNodes ? args[0].split(",") : new String[]{"3", "64", "256B", "1KiB", "4KiB", "16KiB"};
+        CommandLineOptions commandLine = new CommandLineOptions(Arrays.copyOfRange(args, hasNodes ? 1 : 0, args.length));
+        int keyCount = Integer.getInteger("keyCount", 1_000_000);
+
+        /* node -> ns per lookup */
+        Map<String, Double> latencies = new LinkedHashMap<>();
+        Collection<RunResult> runs = new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .include(NodeSizeBenchmark.class.getName() + ".lookup")
+                .param("node", nodes)
+                .param("keyCount", Integer.toString(keyCount))
+                .build()).run();
+        for (RunResult run : runs) {
+            latencies.put(run.getParams().getParam("node"), run.getPrimaryResult().getScore());
+        }
+
+        System.out.println();
+        System.out.printf("%-8s %6s %9s %15s %7s %12s %15s%n",
+                "node", "leaf m", "internal", "bytes/node", "height", "ns/lookup", "bytes/entry");
+        for (String node : nodes) {
+            long before = usedHeap();
+            GSBTree<Integer, Double> tree = NodeSizeBenchmark.create(node);
+            TreeBenchmark.load(new BenchmarkTree.GSB(tree), keyCount);
+            long after = usedHeap();
+            Double latency = latencies.get(node);
+            System.out.printf("%-8s %6d %9d %15s %7d %12s %15.1f%n", node, tree.getLeafOrder(),
+                    tree.getInternalOrder(), NodeSizeBenchmark.nodeBytes(tree), tree.getHeight(),
+                    latency == null ? "-" : String.format("%.1f", latency), (after - before) / (double) keyCount);
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,105 @@
+package benchmark;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 01:25
+ */
+
+/**
+ * Runs the concurrent benchmarks at 1, 2, 4 ... 64 threads and prints the
+ * throughput of every benchmark (and of the readers and writers of a group)
+ * per thread count, with the speedup over one thread. Groups keep 3 readers
+ * per writer; at one thread there is only a reader. Other JMH options can
+ * follow the benchmark pattern.
+ * <pre>
+ *     java -cp benchmarks/target/benchmarks.jar benchmark.ScalabilityRunner [pattern] [jmh options]
+ *     java -Dthreads=1,2,4,8 -cp benchmarks/target/benchmarks.jar benchmark.ScalabilityRunner LockManagerBenchmark -p resources=16
+ * </pre>
+ */
+public class ScalabilityRunner {
+
+    /* The @Group benchmarks, run with reader:writer thread groups instead of -t */
+    private static final String GROUPS = "\\.(readWrite|sharedExclusive)$";
+
+    public static void main(String[] args) throws Exception {
+        boolean hasPattern = args.length > 0 && !args[0].startsWith("-");
+        String pattern = hasPattern ? args[0] : "ConcurrentTreeBenchmark|LockManagerBenchmark";
+        CommandLineOptions commandLine = new CommandLineOptions(Arrays.copyOfRange(args, hasPattern ? 1 : 0, args.length));
+
+        List<Integer> threadCounts = new ArrayList<>();
+        for (String threads : System.getProperty("threads", "1,2,4,8,16,32,64").split(",")) {
+            threadCounts.add(Integer.parseInt(threads.trim()));
+        }
+
+        /* label -> threads -> ops/ms */
+        Map<String, Map<Integer, Double>> curves = new TreeMap<>();
+        for (int threads : threadCounts) {
+            int writers = threads == 1 ? 0 : Math.max(1, threads / 4);
+            ChainedOptionsBuilder symmetric = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include(pattern)
+                    .exclude(GROUPS)
+                    .threads(threads);
+            ChainedOptionsBuilder groups = new OptionsBuilder()
+                    .parent(commandLine)
+                    .include("^(?=.*(" + pattern + ")).*" + GROUPS)
+                    .threadGroups(threads - writers, writers);
+            List<RunResult> runs = new ArrayList<>();
+            for (ChainedOptionsBuilder options : List.of(symmetric, groups)) {
+                try {
+                    runs.addAll(new Runner(options.build()).run());
+                } catch (NoBenchmarksException e) {
+                    // the pattern selects none of this kind
+                }
+            }
+            for (RunResult run : runs) {
+                String label = label(run);
+                curves.computeIfAbsent(label, k -> new TreeMap<>()).put(threads, run.getPrimaryResult().getScore());
+                for (String name : run.getSecondaryResults().keySet()) {
+                    Result<?> secondary = run.getSecondaryResults().get(name);
+                    curves.computeIfAbsent(label + ":" + name, k -> new TreeMap<>()).put(threads, secondary.getScore());
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-80s", "throughput (ops/ms) by threads");
+        for (int threads : threadCounts) {
+            System.out.printf(" %10d", threads);
+        }
+        System.out.printf(" %8s%n", "speedup");
+        for (Map.Entry<String, Map<Integer, Double>> curve : curves.entrySet()) {
+            System.out.printf("%-80s", curve.getKey());
+            Map<Integer, Double> scores = curve.getValue();
+            for (int threads : threadCounts) {
+                System.out.printf(" %10s", scores.containsKey(threads) ? String.format("%.1f", scores.get(threads)) : "-");
+            }
+            Double first = scores.get(threadCounts.get(0));
+            Double last = scores.get(threadCounts.get(threadCounts.size() - 1));
+            System.out.printf(" %8s%n", first == null || last == null || first == 0 ?
+                    "-" : String.format("%.2fx", last / first));
+        }
+    }
+
+    private static String label(RunResult run) {
+        StringBuilder label = new StringBuilder(run.getParams().getBenchmark().replace("benchmark.", ""));
+        for (String key : run.getParams().getParamsKeys()) {
+            label.append(' ').append(key).append('=').append(run.getParams().getParam(key));
+        }
+        return label.toString();
+    }
+}
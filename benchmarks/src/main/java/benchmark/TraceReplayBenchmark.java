@@ -0,0 +1,155 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import replay.BinaryTraceReplayer;
+import replay.ReplayEngine;
+import replay.ResultWriter;
+import replay.TextTraceParser;
+import replay.TraceConverter;
+import replay.TraceHandler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 03:50
+ */
+
+/**
+ * Replay of one trace of OPERATIONS inserts and searches on a GSBTree of
+ * order m, per operation:
+ * <ul>
+ *     <li>text: TextTraceParser and ReplayEngine, results discarded</li>
+ *     <li>binary: BinaryTraceReplayer on the mapped BinaryTrace</li>
+ *     <li>parse: TextTraceParser alone, the parsing part of text</li>
+ * </ul>
+ * Every replay starts with Initialize(m), so it builds its own tree.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar TraceReplayBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TraceReplayBenchmark {
+
+    static final int OPERATIONS = 1 << 20;
+
+    @State(Scope.Thread)
+    public static class Trace {
+
+        @Param({"64"})
+        int m;
+
+        @Param({"1000000"})
+        int keyCount;
+
+        @Param({"uniform", "zipfian"})
+        String distribution;
+
+        @Param({"50"})
+        int readPercent;
+
+        Path text;
+        Path binary;
+        ByteBuffer mapped;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            text = Files.createTempFile("trace", ".txt");
+            binary = Files.createTempFile("trace", ".bin");
+            int[] keys = KeyDistribution.of(distribution).draw(keyCount, OPERATIONS - 1, TreeBenchmark.SEED);
+            SplittableRandom random = new SplittableRandom(TreeBenchmark.SEED);
+            try (BufferedWriter writer = Files.newBufferedWriter(text, StandardCharsets.US_ASCII)) {
+                writer.write("Initialize(" + m + ")\n");
+                for (int key : keys) {
+                    if (random.nextInt(100) < readPercent) {
+                        writer.write("Search(" + key + ")\n");
+                    } else {
+                        writer.write("Insert(" + key + ", " + random.nextInt(1000000) / 100.0 + ")\n");
+                    }
+                }
+            }
+            TraceConverter.convert(text, binary);
+            try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ)) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long text(Trace trace) throws IOException {
+        try (ResultWriter results = new ResultWriter(OutputStream.nullOutputStream())) {
+            return TextTraceParser.parse(trace.text, new ReplayEngine("GSBTree", results));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long binary(Trace trace) throws IOException {
+        BinaryTraceReplayer replayer = new BinaryTraceReplayer(null);
+        replayer.replay(trace.mapped);
+        return replayer.getChecksum();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long parse(Trace trace) throws IOException {
+        Checksum checksum = new Checksum();
+        TextTraceParser.parse(trace.text, checksum);
+        return checksum.value;
+    }
+
+    /* Only folds the operations, so that the parser is all that is timed */
+    private static final class Checksum implements TraceHandler {
+
+        long value;
+
+        @Override
+        public void initialize(int m) { value = value * 31 + m; }
+
+        @Override
+        public void insert(int key, double value) { this.value = this.value * 31 + key + Double.doubleToLongBits(value); }
+
+        @Override
+        public void delete(int key) { value = value * 31 - key; }
+
+        @Override
+        public void search(int key) { value = value * 31 + key; }
+
+        @Override
+        public void search(int lowerBound, int upperBound) { value = value * 31 + lowerBound + upperBound; }
+    }
+}
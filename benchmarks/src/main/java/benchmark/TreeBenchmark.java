@@ -0,0 +1,178 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 12:20
+ */
+
+/**
+ * Steady-state operations on a tree loaded with keyCount keys (the even
+ * numbers 0, 2, ..., inserted in random order):
+ * <ul>
+ *     <li>lookup: point search of a loaded key</li>
+ *     <li>range: scan of rangeLength loaded keys</li>
+ *     <li>mixed: readPercent lookups, the rest writes of odd keys that
+ *     insert a key and then delete it again, so the size of the tree stays
+ *     the same and every delete finds its key</li>
+ * </ul>
+ * The keys come from a precomputed stream of the distribution. Inserts and
+ * deletes of distinct keys, which change the tree, are in TreeUpdateBenchmark.
+ * lookup and range compare the three trees; mixed deletes, so it only runs
+ * GSBTree by default.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar TreeBenchmark -prof gc
+ *     java -jar benchmarks/target/benchmarks.jar TreeBenchmark.lookup -p keyCount=100000000 -jvmArgs -Xmx16g
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TreeBenchmark {
+
+    static final long SEED = 42;
+
+    /* Length of the precomputed key streams, a power of two */
+    private static final int STREAM = 1 << 20;
+    private static final int MASK = STREAM - 1;
+
+    /**
+     * A loaded tree and the key stream, shared by the benchmark states.
+     */
+    @State(Scope.Thread)
+    public abstract static class Loaded {
+
+        @Param({"16", "64", "256"})
+        int m;
+
+        @Param({"1000", "1000000"})
+        int keyCount;
+
+        @Param({"uniform", "zipfian", "sequential"})
+        String distribution;
+
+        @Param({"100"})
+        int rangeLength;
+
+        @Param({"90"})
+        int readPercent;
+
+        BenchmarkTree tree;
+        int[] keys;
+        /* 0 for a lookup, 1 for a write */
+        byte[] kinds;
+        int cursor;
+        int writes;
+
+        abstract String impl();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            tree = load(impl(), m, keyCount);
+            keys = KeyDistribution.of(distribution).draw(keyCount, STREAM, SEED);
+            kinds = new byte[STREAM];
+            SplittableRandom random = new SplittableRandom(SEED);
+            for (int i = 0; i < STREAM; i++) {
+                int r = random.nextInt(100);
+                kinds[i] = (byte) (r < readPercent ? 0 : 1);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AnyTree extends Loaded {
+
+        @Param({"GSBTree", "BPlusTree", "BTree"})
+        String impl;
+
+        @Override
+        String impl() {
+            return impl;
+        }
+    }
+
+    /* example.BPlusTree and example.BTree fail on deletes, see TreeUpdateBenchmark.DeletableTree */
+    @State(Scope.Thread)
+    public static class DeletableTree extends Loaded {
+
+        @Param({"GSBTree"})
+        String impl;
+
+        @Override
+        String impl() {
+            return impl;
+        }
+    }
+
+    /**
+     * @return a tree holding the keys 0, 2, ..., 2 * (keyCount - 1), inserted in random order
+     */
+    static BenchmarkTree load(String impl, int m, int keyCount) {
+        return load(BenchmarkTree.create(impl, m), keyCount);
+    }
+
+    /**
+     * @return the empty tree, loaded with the keys 0, 2, ..., 2 * (keyCount - 1) in random order
+     */
+    static BenchmarkTree load(BenchmarkTree tree, int keyCount) {
+        int[] order = new int[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            order[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = keyCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for (int index : order) {
+            tree.insert(2 * index, index);
+        }
+        return tree;
+    }
+
+    @Benchmark
+    public Double lookup(AnyTree state) {
+        return state.tree.search(2 * state.keys[state.cursor++ & MASK]);
+    }
+
+    @Benchmark
+    public int range(AnyTree state) {
+        int lowerBound = 2 * state.keys[state.cursor++ & MASK];
+        return state.tree.range(lowerBound, lowerBound + 2 * (state.rangeLength - 1));
+    }
+
+    /* A write inserts an odd key on even writes and deletes the same key on odd ones, like ConcurrentTreeBenchmark.write */
+    @Benchmark
+    public Double mixed(DeletableTree state) {
+        int i = state.cursor++ & MASK;
+        if (state.kinds[i] == 0) {
+            return state.tree.search(2 * state.keys[i]);
+        }
+        int key = 2 * state.keys[(state.writes >> 1) & MASK] + 1;
+        if ((state.writes++ & 1) == 0) {
+            state.tree.insert(key, key);
+        } else {
+            state.tree.delete(key);
+        }
+        return null;
+    }
+}
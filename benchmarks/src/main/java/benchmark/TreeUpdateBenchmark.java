@@ -0,0 +1,120 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 12:30
+ */
+
+/**
+ * Inserts of new keys and deletes of loaded keys. Both change the tree, so
+ * every iteration loads a fresh tree of keyCount keys and times one batch
+ * of BATCH distinct keys, in the order of the distribution: inserts of odd
+ * keys (none is loaded) and deletes of even keys (all are loaded). The
+ * result is the time per key. insert compares the three trees, delete
+ * only runs GSBTree by default.
+ * <pre>
+ *     java -jar benchmarks/target/benchmarks.jar TreeUpdateBenchmark -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(1)
+public class TreeUpdateBenchmark {
+
+    /* Keys per measured batch; at most the smallest keyCount */
+    static final int BATCH = 1000;
+
+    /**
+     * A freshly loaded tree and a batch of distinct keys for every iteration.
+     */
+    @State(Scope.Thread)
+    public abstract static class Batch {
+
+        @Param({"16", "64", "256"})
+        int m;
+
+        @Param({"1000", "1000000"})
+        int keyCount;
+
+        @Param({"uniform", "zipfian", "sequential"})
+        String distribution;
+
+        BenchmarkTree tree;
+        int[] batch;
+        private int iteration;
+
+        abstract String impl();
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            tree = TreeBenchmark.load(impl(), m, keyCount);
+            batch = KeyDistribution.of(distribution).distinct(keyCount, BATCH, TreeBenchmark.SEED + iteration++);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AnyTree extends Batch {
+
+        @Param({"GSBTree", "BPlusTree", "BTree"})
+        String impl;
+
+        @Override
+        String impl() {
+            return impl;
+        }
+    }
+
+    /*
+     * example.BPlusTree.delete leaves a null inside the sorted dictionary and
+     * fails on the next borrow, and drops the pairs of a merged leaf;
+     * example.BTree.remove fails in growChildAndRemove. Pass -p impl=... to
+     * run them anyway.
+     */
+    @State(Scope.Thread)
+    public static class DeletableTree extends Batch {
+
+        @Param({"GSBTree"})
+        String impl;
+
+        @Override
+        String impl() {
+            return impl;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BenchmarkTree insert(AnyTree state) {
+        for (int index : state.batch) {
+            state.tree.insert(2 * index + 1, index);
+        }
+        return state.tree;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BenchmarkTree delete(DeletableTree state) {
+        for (int index : state.batch) {
+            state.tree.delete(2 * index);
+        }
+        return state.tree;
+    }
+}
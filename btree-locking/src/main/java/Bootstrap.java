@@ -1,11 +1,9 @@
-import example.BPlusTree;
+import replay.PartitionedReplay;
+import replay.ReplayEngine;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Scanner;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * @author I-Chung, Wang
@@ -24,94 +22,34 @@ public class Bootstrap {
         String fileName = args[0];
         try {
 
-            // Prepare to read input file
-            File file = new File(System.getProperty("user.dir") + "/" + fileName);
-            Scanner sc = new Scanner(file);
-
-            // Create output file in which search results will be stored
-            FileWriter logger = new FileWriter("output_file.txt", false);
-            boolean firstLine = true;
-
-            // Create initial B+ tree
-            BPlusTree bpt = null;
-
-            // Perform an operation for each line in the input file
-            while (sc.hasNextLine()) {
-                String line = sc.nextLine().replace(" ", "");
-                String[] tokens = line.split("[(,)]");
-
-                switch (tokens[0]) {
-
-                    // Initializes an m-order B+ tree
-                    case "Initialize":
-                        bpt = new BPlusTree(Integer.parseInt(tokens[1]));
-                        break;
-
-                    // Insert a dictionary pair into the B+ tree
-                    case "Insert":
-                        bpt.insert(Integer.parseInt(tokens[1]), Double.parseDouble(tokens[2]));
-                        break;
-
-                    // Delete a dictionary pair from the B+ tree
-                    case "Delete":
-                        bpt.delete(Integer.parseInt(tokens[1]));
-                        break;
-
-                    // Perform a search or search operation on the B+ tree
-                    case "Search":
-                        String result = "";
-
-                        // Perform search (across a range) operation
-                        if (tokens.length == 3) {
-                            ArrayList<Double> values = bpt.search(
-                                    Integer.parseInt(tokens[1]),
-                                    Integer.parseInt(tokens[2]));
-
-                            // Record search result as a String
-                            if (values.size() != 0) {
-                                for (double v : values) { result += v + ", "; }
-                                result = result.substring(0, result.length() - 2);
-                            } else {
-                                result = "Null";
-                            }
-
-                        }
-
-                        // Perform search operation
-                        else {
-
-							/* Perform search for key, if resulting value is
-							   null, then the key could not be found */
-                            Double value = bpt.search(Integer.parseInt(tokens[1]));
-                            result = (value == null) ? "Null" :
-                                    Double.toString(value);
-                        }
-
-                        // Output search result in .txt file
-                        if (firstLine) {
-                            logger.write(result);
-                            firstLine = false;
-                        } else {
-                            logger.write("\n" + result);
-                        }
-                        logger.flush();
-
-                        break;
-                    default:
-                        throw new IllegalArgumentException("\"" + tokens[0] +
-                                "\"" + " is an unacceptable input.");
+            // Input file, and output file in which search results will be stored
+            Path file = Paths.get(System.getProperty("user.dir"), fileName);
+            Path output = Paths.get(System.getProperty("replay.output", "output_file.txt"));
+
+            /* With -Dreplay.threads=N, replay the input file on N threads against
+               a GSBTree and a LockManager, partitioned by -Dreplay.partitioning
+               (key_range or key_hash), and check it against a sequential replay */
+            int threads = Integer.getInteger("replay.threads", 1);
+            if (threads > 1) {
+                PartitionedReplay.Partitioning partitioning = PartitionedReplay.Partitioning.valueOf(
+                        System.getProperty("replay.partitioning", "key_range").toUpperCase());
+                if (!PartitionedReplay.replay(file, threads, partitioning, System.out)) {
+                    System.exit(1);
                 }
+                return;
             }
 
-            // Close output file
-            logger.close();
+            /* Perform an operation for each line in the input file on the
+               tree of -Dreplay.tree (BPlusTree or GSBTree), then report ops/sec */
+            ReplayEngine.replay(file, output, System.getProperty("replay.tree", "BPlusTree"), System.out);
 
-        } catch (FileNotFoundException e) {
-            System.err.println(e);
         } catch (IllegalArgumentException e) {
             System.err.println(e);
         } catch (IOException e) {
             System.err.println(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println(e);
         }
     }
 }
@@ -9,11 +9,22 @@ package btree;
  * This class represents a dictionary pair that is to be contained within the
  * leaf nodes of the B+ tree. The class implements the Comparable interface
  * so that the DictionaryPair objects can be sorted later on.
+ *
+ * A DictionaryPair is also one version of its key. It is immutable apart from
+ * the link to the previous version: an update or delete installs a new pair
+ * (a tombstone for a delete) whose older field points to the pair it
+ * replaced, so a reader that fetched a pair always sees a consistent
+ * (value, commitTs) and can walk back to the version visible at its snapshot.
  */
 public class DictionaryPair implements Comparable<DictionaryPair> {
 
-    int key;
-    double value;
+    final int key;
+    final double value;
+    final long commitTs;
+    final boolean deleted;
+
+    /* Pruned (set to null) once no active Snapshot can see older versions */
+    volatile DictionaryPair older;
 
     /**
      * Constructor
@@ -21,8 +32,51 @@ public class DictionaryPair implements Comparable<DictionaryPair> {
      * @param value: the value of the key-value pair
      */
     public DictionaryPair(int key, double value) {
+        this(key, value, 0, false, null);
+    }
+
+    /**
+     * Constructor
+     * @param key: the key of the key-value pair
+     * @param value: the value of the key-value pair
+     * @param commitTs: commit timestamp of this version
+     * @param deleted: whether this version is a tombstone
+     * @param older: the version this one replaces, or null
+     */
+    DictionaryPair(int key, double value, long commitTs, boolean deleted, DictionaryPair older) {
         this.key = key;
         this.value = value;
+        this.commitTs = commitTs;
+        this.deleted = deleted;
+        this.older = older;
+    }
+
+    /**
+     * Walk the version chain back to the newest version committed at or
+     * before the snapshot timestamp.
+     * @param timestamp: snapshot timestamp
+     * @return the visible version, or null if the key did not exist then
+     */
+    DictionaryPair visibleAt(long timestamp) {
+        DictionaryPair version = this;
+        while (version != null && version.commitTs > timestamp) {
+            version = version.older;
+        }
+        return (version == null || version.deleted) ? null : version;
+    }
+
+    /**
+     * Drop the versions that no snapshot at or after the horizon can see,
+     * i.e. everything older than the newest version committed at or before
+     * the horizon.
+     * @param horizon: timestamp of the oldest active snapshot
+     */
+    void prune(long horizon) {
+        DictionaryPair version = this;
+        while (version != null && version.commitTs > horizon) {
+            version = version.older;
+        }
+        if (version != null) { version.older = null; }
     }
 
     /**
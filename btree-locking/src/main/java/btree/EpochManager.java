@@ -0,0 +1,198 @@
+package btree;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 06:10
+ */
+
+/**
+ * Epoch-based reclamation. A reader brackets every traversal with enter() and
+ * exit(), announcing the global epoch it started in. A writer that unlinks an
+ * object retires it onto its own thread-local limbo list, tagged with the
+ * current epoch. The global epoch only moves on once every reader inside a
+ * traversal has announced it, so an object retired in epoch e is unreachable
+ * for everyone once the global epoch is e + 2; it is then handed to the
+ * reclaimer by the next thread that collects. That is usually the thread
+ * that retired it, but a thread that stops retiring, or terminates, leaves
+ * its limbo lists to the others instead of keeping them forever.
+ * @param <T> type of the retired objects
+ */
+public final class EpochManager<T> {
+
+    /* Epochs an object has to wait in limbo; three limbo buckets cover them */
+    private static final int GRACE_EPOCHS = 2;
+    private static final int BUCKETS = GRACE_EPOCHS + 1;
+
+    private final AtomicLong globalEpoch = new AtomicLong();
+    /* Objects in the limbo lists of all participants */
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<Participant<T>> participants = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Participant<T>> local = ThreadLocal.withInitial(this::register);
+    private final Consumer<? super T> reclaimer;
+
+    /**
+     * The epoch state and limbo lists of one thread. Other threads read
+     * state, and the limbo lists holding the participant's monitor.
+     */
+    private static final class Participant<T> {
+
+        final Thread thread = Thread.currentThread();
+
+        /* (epoch << 1) | 1 inside a traversal, 0 outside */
+        volatile long state;
+        int depth;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        final ArrayList<T>[] limbo = new ArrayList[BUCKETS];
+        final long[] limboEpoch = new long[BUCKETS];
+        volatile int retired;
+
+        Participant() {
+            for (int i = 0; i < BUCKETS; i++) {
+                limbo[i] = new ArrayList<>();
+            }
+        }
+    }
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    /**
+     * Constructor
+     * @param reclaimer: receives every retired object once no reader can
+     *                   hold a reference to it
+     */
+    public EpochManager(Consumer<? super T> reclaimer) {
+        this.reclaimer = reclaimer;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    private Participant<T> register() {
+        Participant<T> participant = new Participant<>();
+        participants.add(participant);
+        return participant;
+    }
+
+    /**
+     * Start a traversal: objects reachable from here on are not reclaimed
+     * until the matching exit(). Traversals of one thread may nest.
+     */
+    public void enter() {
+        Participant<T> participant = local.get();
+        if (participant.depth++ == 0) {
+            participant.state = (globalEpoch.get() << 1) | 1;
+
+            /* The announcement must be visible before the first node is read */
+            VarHandle.fullFence();
+        }
+    }
+
+    /**
+     * End the traversal started by the matching enter().
+     */
+    public void exit() {
+        Participant<T> participant = local.get();
+        if (--participant.depth == 0) {
+            participant.state = 0;
+        }
+    }
+
+    /**
+     * Put an object that has already been unlinked, i.e. that no new
+     * traversal can reach, on the limbo list of the calling thread.
+     * @param object: the unlinked object
+     */
+    public void retire(T object) {
+        Participant<T> participant = local.get();
+        synchronized (participant) {
+            long epoch = globalEpoch.get();
+            int bucket = (int) (epoch % BUCKETS);
+            if (participant.limboEpoch[bucket] != epoch) {
+
+                /* Whatever is left in the bucket is from epoch - 3 at the latest */
+                reclaim(participant, bucket);
+                participant.limboEpoch[bucket] = epoch;
+            }
+            participant.limbo[bucket].add(object);
+            participant.retired++;
+        }
+        pending.incrementAndGet();
+        collect();
+    }
+
+    /**
+     * Try to advance the global epoch and reclaim the objects past their
+     * grace period, whichever thread retired them. Cheap when nothing is in
+     * limbo.
+     */
+    public void collect() {
+        if (pending.get() == 0) { return; }
+        tryAdvance();
+        long epoch = globalEpoch.get();
+        for (Participant<T> participant : participants) {
+            if (participant.retired == 0) { continue; }
+            synchronized (participant) {
+                for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                    if (participant.limboEpoch[bucket] + GRACE_EPOCHS <= epoch) {
+                        reclaim(participant, bucket);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The global epoch advances when every thread inside a traversal has
+     * announced it. Threads that terminated are dropped on the way, once
+     * their limbo lists were reclaimed.
+     * @return whether the global epoch was advanced
+     */
+    public boolean tryAdvance() {
+        long epoch = globalEpoch.get();
+        for (Participant<T> participant : participants) {
+            long state = participant.state;
+            if ((state & 1) != 0) {
+                if ((state >>> 1) != epoch) { return false; }
+            } else if (!participant.thread.isAlive() && participant.retired == 0) {
+                participants.remove(participant);
+            }
+        }
+        return globalEpoch.compareAndSet(epoch, epoch + 1);
+    }
+
+    /**
+     * @return the current global epoch
+     */
+    public long getEpoch() {
+        return globalEpoch.get();
+    }
+
+    private void reclaim(Participant<T> participant, int bucket) {
+        ArrayList<T> objects = participant.limbo[bucket];
+        for (T object : objects) {
+            reclaimer.accept(object);
+        }
+        participant.retired -= objects.size();
+        pending.addAndGet(-objects.size());
+        objects.clear();
+    }
+}
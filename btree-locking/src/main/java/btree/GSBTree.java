@@ -2,10 +2,15 @@ package btree;
 
 
 import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 /**
  * @author I-Chung, Wang
@@ -15,15 +20,40 @@ import java.util.Optional;
 /*
 * Graph Data Simplified B Plus Tree
 * This is a tree for Native-Graph database(Neo4j)
+*
+* Writers are serialized by a latch and stamp every change with a commit
+* timestamp. Leaf entries keep a version chain, so readers search either the
+* latest committed state or a Snapshot, optimistically and without locks:
+* a read that raced with a writer is simply retried.
 * */
 public class GSBTree<K extends Comparable<K>, V> implements Serializable {
 
+    /* Orders of the InternalNodes and of the LeafNodes */
     int m;
+    int leafM;
     private volatile InternalNode root;
     private LeafNode firstLeaf;
 
+    private final StampedLock latch = new StampedLock();
+    private final AtomicLong commitClock = new AtomicLong();
+
+    /* Timestamps of the open snapshots, with the number of snapshots on each */
+    private final ConcurrentSkipListMap<Long, Integer> activeSnapshots = new ConcurrentSkipListMap<>();
+
+    /* Tombstones of deletes under a snapshot in commit order, and the commit
+       timestamp of the first one, Long.MAX_VALUE if there is none */
+    private final ArrayDeque<DictionaryPair> tombstones = new ArrayDeque<>();
+    private volatile long oldestTombstone = Long.MAX_VALUE;
+
+    /* Nodes unlinked by a merge are reused by splits once no reader can see them;
+       epochs is only retired to and collected holding the write latch, as the pool needs */
+    private final NodePool nodePool;
+    private final EpochManager<TreeNode> epochs;
+
     private static final long serialVersionUID = -80614811640020525L;
     private static final int DEFAULT_DEGREE = 3;
+    private static final int OPTIMISTIC_READ_ATTEMPTS = 16;
+    private static final int NODE_POOL_CAPACITY = 256;
 
 
     /*
@@ -41,8 +71,30 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * @param m: the order (fanout) of the B+ tree
      */
     public GSBTree(int m) {
+        this(m, m);
+    }
+
+    /**
+     * Constructor
+     * @param leafM: the order of the LeafNodes, which hold up to leafM - 1 pairs
+     * @param m: the order (fanout) of the InternalNodes
+     */
+    public GSBTree(int leafM, int m) {
         this.m = m;
+        this.leafM = leafM;
         this.root = null;
+        this.nodePool = new NodePool(leafM, m, NODE_POOL_CAPACITY);
+        this.epochs = new EpochManager<>(nodePool::recycle);
+    }
+
+    /**
+     * Build a B+ tree whose LeafNodes and InternalNodes each fit in about
+     * nodeBytes, see NodeSizing.
+     * @param nodeBytes: the target node size, e.g. NodeSizing.PAGE
+     * @return an empty B+ tree
+     */
+    public static <K extends Comparable<K>, V> GSBTree<K, V> forNodeSize(int nodeBytes) {
+        return new GSBTree<>(NodeSizing.leafOrder(nodeBytes), NodeSizing.internalOrder(nodeBytes));
     }
 
 
@@ -63,12 +115,7 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * @return index of the target value if found, else a negative value
      */
     public int binarySearch(DictionaryPair[] dps, int numPairs, int t) {
-        Comparator<DictionaryPair> c = (o1, o2) -> {
-            Integer a = o1.key;
-            Integer b = o2.key;
-            return a.compareTo(b);
-        };
-        return Arrays.binarySearch(dps, 0, numPairs, new DictionaryPair(t, 0), c);
+        return LeafNode.indexOf(dps, numPairs, t);
     }
 
     /**
@@ -79,45 +126,24 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * @return the LeafNode object that contains the key within its dictionary
      */
     public LeafNode findLeafNode(int key) {
-
-        // Initialize keys and index variable
-        Integer[] keys = this.root.getKeys();
-        int i;
-
-        // Find next node on path to appropriate leaf node
-        for (i = 0; i < this.root.getDegree() - 1; i++) {
-            if (key < keys[i]) { break; }
-        }
-
-		/* Return node if it is a LeafNode object,
-		   otherwise repeat the search function a level down */
-        TreeNode child = this.root.getChildPointers()[i];
-        if (child instanceof LeafNode) {
-            return (LeafNode)child;
-        } else {
-            return findLeafNode((InternalNode)child, key);
-        }
+        return findLeafNode(this.root, key);
     }
 
+    /**
+     * This method descends from 'node' to the leaf whose key range holds
+     * 'key', routing through each InternalNode with a binary search over its
+     * keys.
+     * @param node: the InternalNode to start from
+     * @param key: the unique key that lies within the dictionary of a LeafNode object
+     * @return the LeafNode object that contains the key within its dictionary
+     */
     public LeafNode findLeafNode(InternalNode node, int key) {
-
-        // Initialize keys and index variable
-        Integer[] keys = node.getKeys();
-        int i;
-
-        // Find next node on path to appropriate leaf node
-        for (i = 0; i < node.getDegree() - 1; i++) {
-            if (key < keys[i]) { break; }
-        }
-
-		/* Return node if it is a LeafNode object,
-		   otherwise repeat the search function a level down */
-        TreeNode childNode = node.getChildPointers()[i];
-        if (childNode instanceof LeafNode) {
-            return (LeafNode)childNode;
-        } else {
-            return findLeafNode((InternalNode)node.getChildPointers()[i], key);
+        TreeNode child = node;
+        while (child instanceof InternalNode) {
+            InternalNode in = (InternalNode) child;
+            child = in.getChildPointers()[in.childIndex(key)];
         }
+        return (LeafNode) child;
     }
 
     /**
@@ -145,97 +171,299 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
         return (int)Math.ceil((this.m + 1) / 2.0) - 1;
     }
 
+    /**
+     * @return the index at which an overfull LeafNode, holding leafM pairs, is split
+     */
+    private int getLeafMidpoint() {
+        return (int)Math.ceil((this.leafM + 1) / 2.0) - 1;
+    }
+
+    public int getLeafOrder() {
+        return leafM;
+    }
+
+    public int getInternalOrder() {
+        return m;
+    }
+
+    /**
+     * @return the number of levels of the B+ tree, 1 for a single leaf and 0
+     * when empty
+     */
+    public int getHeight() {
+        return optimisticRead(() -> {
+            if (isEmpty()) { return 0; }
+            int height = 1;
+            for (TreeNode node = this.root; node instanceof InternalNode;
+                 node = ((InternalNode) node).getChildPointers()[0]) {
+                height++;
+            }
+            return height;
+        });
+    }
+
 
     /**
      * Given a deficient InternalNode in, this method remedies the deficiency
-     * through borrowing and merging.
+     * through borrowing and merging. Only siblings under the same parent are
+     * considered; a node that is merged away is unlinked and retired.
      * @param in: a deficient InternalNode
      */
     public void handleDeficiency(InternalNode in) {
-        // TODO : Handling Sibling problem
-
-        InternalNode sibling;
-        InternalNode parent = in.parent;
-        TreeNode[] childPointers = parent.getChildPointers();
 
         // Remedy deficient root node
         if (this.root == in) {
-            for (TreeNode childPointer : childPointers) {
-                if (childPointer != null) {
-                    if (childPointer instanceof InternalNode) {
-                        this.root = (InternalNode) childPointer;
-                        this.root.parent = null;
-                    } else if (childPointer instanceof LeafNode) {
-                        this.root = null;
-                    }
-                }
+
+            /* The root only needs two children, with one it is replaced by it */
+            if (in.getDegree() > 1) { return; }
+
+            TreeNode childPointer = in.getChildPointers()[0];
+            if (childPointer instanceof InternalNode) {
+                this.root = (InternalNode) childPointer;
+            } else {
+                this.root = null;
             }
+            childPointer.parent = null;
+            epochs.retire(in);
+            return;
         }
 
-        // Borrow:
-        else if (in.leftSibling != null && in.leftSibling.isLendable()) {
-            sibling = in.leftSibling;
-        } else if (in.rightSibling != null && in.rightSibling.isLendable()) {
-            sibling = in.rightSibling;
+        InternalNode parent = in.parent;
+        TreeNode[] childPointers = parent.getChildPointers();
+        int pointerIndex = parent.findIndexOfPointer(in).get();
+        InternalNode left = (pointerIndex > 0) ? (InternalNode) childPointers[pointerIndex - 1] : null;
+        InternalNode right = (pointerIndex < parent.getDegree() - 1) ?
+                (InternalNode) childPointers[pointerIndex + 1] : null;
 
-            // Copy 1 key and pointer from sibling (atm just 1 key)
-            int borrowedKey = sibling.getKeys()[0];
-            TreeNode pointer = sibling.getChildPointers()[0];
+        // Borrow: rotate a child pointer through the parent key between the nodes
+        if (left != null && left.isLendable()) {
 
-            // Copy root key and pointer into parent
-            in.getKeys()[in.getDegree() - 1] = parent.getKeys()[0];
-            childPointers[in.getDegree()] = pointer;
+            int last = left.getDegree() - 1;
+            TreeNode pointer = left.getChildPointers()[last];
 
-            // Copy borrowedKey into root
-            parent.getKeys()[0] = borrowedKey;
+            // Separator comes down into in, left's last key goes up
+            in.insertKey(parent.getKey(pointerIndex - 1), 0);
+            in.prependChildPointer(pointer);
+            pointer.parent = in;
+            parent.setKey(pointerIndex - 1, left.getKey(last - 1));
 
             // Delete key and pointer from sibling
-            sibling.removePointer(0);
-            Arrays.sort(sibling.getKeys());
-            sibling.removePointer(0);
-            shiftDown(childPointers, 1);
-        }
-
-        // Merge:
-        else if (in.leftSibling != null && in.leftSibling.isMergeable()) {
-
-        } else if (in.rightSibling != null && in.rightSibling.isMergeable()) {
-            sibling = in.rightSibling;
-
-            // Copy rightmost key in parent to beginning of sibling's keys &
-            // delete key from parent
-            sibling.getKeys()[sibling.getDegree() - 1] = parent.getKeys()[parent.getDegree() - 2];
-            Arrays.sort(sibling.getKeys(), 0, sibling.getDegree());
-            parent.getKeys()[parent.getDegree() - 2] = null;
-
-            // Copy in's child pointer over to sibling's list of child pointers
-            for (int i = 0; i < childPointers.length; i++) {
-                if (childPointers[i] != null) {
-                    sibling.prependChildPointer(childPointers[i]);
-                    childPointers[i].parent = sibling;
-                    in.removePointer(i);
-                }
-            }
+            left.removeKey(last - 1);
+            left.removePointer(last);
+
+        } else if (right != null && right.isLendable()) {
+
+            TreeNode pointer = right.getChildPointers()[0];
 
-            // Delete child pointer from grandparent to deficient node
-            parent.removePointer(in);
+            // Separator comes down into in, right's first key goes up
+            in.appendKey(parent.getKey(pointerIndex));
+            in.appendChildPointer(pointer);
+            pointer.parent = in;
+            parent.setKey(pointerIndex, right.getKey(0));
+
+            // Delete key and pointer from sibling
+            right.removeKey(0);
+            right.removePointer(0);
+        }
 
-            // Remove left sibling
-            sibling.leftSibling = in.leftSibling;
+        // Merge: the right one of the two nodes is merged into the left one
+        else if (left != null) {
+            mergeInternalNodes(left, in, pointerIndex - 1);
+        } else if (right != null) {
+            mergeInternalNodes(in, right, pointerIndex);
         }
 
         // Handle deficiency a level up if it exists
-        if (parent != null && parent.isDeficient()) {
+        if (parent.isDeficient()) {
             handleDeficiency(parent);
         }
     }
 
+    /**
+     * Given a deficient LeafNode ln, this method remedies the deficiency
+     * by borrowing a dictionary pair from a sibling under the same parent,
+     * or else by merging with it.
+     * @param ln: a deficient LeafNode that has a parent
+     */
+    private void handleDeficiency(LeafNode ln) {
+
+        InternalNode parent = ln.parent;
+        TreeNode[] childPointers = parent.getChildPointers();
+        int pointerIndex = parent.findIndexOfPointer(ln).get();
+        LeafNode left = (pointerIndex > 0) ? (LeafNode) childPointers[pointerIndex - 1] : null;
+        LeafNode right = (pointerIndex < parent.getDegree() - 1) ?
+                (LeafNode) childPointers[pointerIndex + 1] : null;
+
+        // Borrow: First, check the left sibling, then the right sibling
+        if (left != null && left.isLendable()) {
+
+            DictionaryPair borrowedDP = left.dictionary[left.numPairs - 1];
+            left.delete(left.numPairs - 1);
+            ln.insert(borrowedDP);
+
+            // The borrowed pair is the new first key of ln
+            parent.setKey(pointerIndex - 1, shortestSeparator(left.dictionary[left.numPairs - 1].key, borrowedDP.key));
+
+        } else if (right != null && right.isLendable()) {
+
+            DictionaryPair borrowedDP = right.dictionary[0];
+            right.delete(0);
+            ln.insert(borrowedDP);
+
+            // The right sibling starts at its next pair now
+            parent.setKey(pointerIndex, shortestSeparator(borrowedDP.key, right.dictionary[0].key));
+        }
+
+        // Merge: the right one of the two leaves is merged into the left one
+        else if (left != null) {
+            mergeLeafNodes(left, ln, pointerIndex - 1);
+        } else if (right != null) {
+            mergeLeafNodes(ln, right, pointerIndex);
+        }
+
+        // Check for deficiencies in parent
+        if (parent.isDeficient()) {
+            handleDeficiency(parent);
+        }
+    }
+
+    /**
+     * This method moves the dictionary pairs of a leaf into its left sibling
+     * and unlinks it from the leaf list and from the parent. The unlinked
+     * leaf is left untouched for readers that may still be on it, and is
+     * retired.
+     * @param left: the leaf that remains
+     * @param right: the leaf right of it, under the same parent
+     * @param keyIndex: index of the parent key that separates the two
+     */
+    private void mergeLeafNodes(LeafNode left, LeafNode right, int keyIndex) {
+        InternalNode parent = left.parent;
+
+        System.arraycopy(right.dictionary, 0, left.dictionary, left.numPairs, right.numPairs);
+        left.numPairs += right.numPairs;
+
+        // Update sibling pointers
+        left.rightSibling = right.rightSibling;
+        if (left.rightSibling != null) {
+            left.rightSibling.leftSibling = left;
+        }
+
+        // Remove key and child pointer from parent
+        parent.removeKey(keyIndex);
+        parent.removePointer(keyIndex + 1);
+
+        epochs.retire(right);
+    }
+
+    /**
+     * This method merges an InternalNode into its left sibling: the parent
+     * key that separates them comes down, followed by the keys and child
+     * pointers of the right node. The right node is unlinked and retired.
+     * @param left: the node that remains
+     * @param right: the node right of it, under the same parent
+     * @param keyIndex: index of the parent key that separates the two
+     */
+    private void mergeInternalNodes(InternalNode left, InternalNode right, int keyIndex) {
+        InternalNode parent = left.parent;
+        left.appendKey(parent.getKey(keyIndex));
+        for (int i = 0; i < right.getNumKeys(); i++) {
+            left.appendKey(right.getKey(i));
+        }
+        for (int i = 0; i < right.getDegree(); i++) {
+            TreeNode pointer = right.getChildPointers()[i];
+            left.appendChildPointer(pointer);
+            pointer.parent = left;
+        }
+
+        // Update sibling pointers
+        left.rightSibling = right.rightSibling;
+        if (left.rightSibling != null) {
+            left.rightSibling.leftSibling = left;
+        }
+
+        // Remove key and child pointer from parent
+        parent.removeKey(keyIndex);
+        parent.removePointer(keyIndex + 1);
+
+        epochs.retire(right);
+    }
+
     /**
      * This is a simple method that determines if the B+ tree is empty or not.
      * @return a boolean indicating if the B+ tree is empty or not
      */
     public boolean isEmpty() {
-        return root == null;
+        return firstLeaf == null;
+    }
+
+    /**
+     * This method returns the timestamp below which no open snapshot reads,
+     * i.e. versions that are superseded at this timestamp can be dropped.
+     * Must be called holding the write latch, without it the result is only
+     * a hint.
+     * @return the timestamp of the oldest open snapshot, or the latest
+     * commit timestamp if there is none
+     */
+    private long horizon() {
+        Map.Entry<Long, Integer> oldest = activeSnapshots.firstEntry();
+        return oldest == null ? commitClock.get() : Math.min(oldest.getKey(), commitClock.get());
+    }
+
+    /**
+     * This method runs a read-only traversal of the tree without taking the
+     * latch. The traversal is validated against the latch stamp afterwards
+     * and retried if a writer got in between; only after repeated failures
+     * does it fall back to the read latch. The traversal runs inside an
+     * epoch, so the nodes it visits are not recycled underneath it.
+     * @param reader: a traversal that does not modify the tree
+     * @return the result of the first validated traversal
+     */
+    private <T> T optimisticRead(Supplier<T> reader) {
+        epochs.enter();
+        try {
+            return validatedRead(reader);
+        } finally {
+            epochs.exit();
+        }
+    }
+
+    private <T> T validatedRead(Supplier<T> reader) {
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            long stamp = latch.tryOptimisticRead();
+            if (stamp == 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            try {
+                T result = reader.get();
+                if (latch.validate(stamp)) { return result; }
+            } catch (RuntimeException e) {
+
+                /* A torn read of a node that is being split or merged may throw,
+                   it only counts if nothing changed underneath */
+                if (latch.validate(stamp)) { throw e; }
+            }
+        }
+        long stamp = latch.readLock();
+        try {
+            return reader.get();
+        } finally {
+            latch.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * This method finds the newest version of the key in the tree,
+     * including tombstones. Callers must hold the latch or validate the read.
+     * @param key: the key to be searched for
+     * @return the newest DictionaryPair of the key, or null
+     */
+    private DictionaryPair findPair(int key) {
+        if (isEmpty()) { return null; }
+        LeafNode ln = (this.root == null) ? this.firstLeaf : findLeafNode(key);
+        DictionaryPair[] dps = ln.dictionary;
+        int index = binarySearch(dps, ln.numPairs, key);
+        return index < 0 ? null : dps[index];
     }
 
     /**
@@ -253,17 +481,35 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
     }
 
     /**
-     * This is a specialized sorting method used upon lists of DictionaryPairs
-     * that may contain interspersed null values.
-     * @param dictionary: a list of DictionaryPair objects
+     * @param left: a leaf
+     * @param right: the leaf right of it
+     * @return the separator to route between the two, see shortestSeparator
      */
-    private void sortDictionary(DictionaryPair[] dictionary) {
-        Arrays.sort(dictionary, (o1, o2) -> {
-            if (o1 == null && o2 == null) { return 0; }
-            if (o1 == null) { return 1; }
-            if (o2 == null) { return -1; }
-            return o1.compareTo(o2);
-        });
+    private int separator(LeafNode left, LeafNode right) {
+        return shortestSeparator(left.dictionary[left.numPairs - 1].key, right.dictionary[0].key);
+    }
+
+    /**
+     * Any key s with lower < s <= upper separates two neighbouring leaves,
+     * not just the first key of the right one. This method picks the one
+     * with the most trailing zero bits, so that the separators of an
+     * InternalNode share a long suffix of zeros and compress into narrow
+     * deltas; it is the int form of choosing the shortest separator.
+     * @param lower: the last key of the left leaf
+     * @param upper: the first key of the right leaf, greater than lower
+     * @return the separator
+     */
+    static int shortestSeparator(int lower, int upper) {
+
+        // Flip the sign bit, so unsigned order is the order of the keys
+        int low = (lower + 1) ^ Integer.MIN_VALUE;
+        int high = upper ^ Integer.MIN_VALUE;
+        if (low == high) { return upper; }
+
+        // Below the common prefix, low is all zeros or else the prefix followed by a one is
+        int differ = Integer.highestOneBit(low ^ high);
+        if (differ != Integer.MIN_VALUE && (low & ((differ << 1) - 1)) == 0) { return lower + 1; }
+        return (high & -differ) ^ Integer.MIN_VALUE;
     }
 
     /**
@@ -271,27 +517,18 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * dictionaries are of equal length, but each of the resulting dictionaries
      * holds half of the original dictionary's non-null values. This method is
      * primarily used when splitting a node within the B+ tree. The dictionary of
-     * the specified LeafNode is modified in place. The method returns the
-     * remainder of the DictionaryPairs that are no longer within ln's dictionary.
+     * the specified LeafNode is modified in place, and the remainder of the
+     * DictionaryPairs is moved into the empty LeafNode 'into'.
      * @param ln: list of DictionaryPairs to be split
      * @param split: the index at which the split occurs
-     * @return DictionaryPair[] of the two split dictionaries
+     * @param into: an empty LeafNode that receives the upper half
      */
-    private DictionaryPair[] splitDictionary(LeafNode ln, int split) {
-
-        DictionaryPair[] dictionary = ln.dictionary;
-
-		/* Initialize two dictionaries that each hold half of the original
-		   dictionary values */
-        DictionaryPair[] halfDict = new DictionaryPair[this.m];
-
-        // Copy half of the values into halfDict
-        for (int i = split; i < dictionary.length; i++) {
-            halfDict[i - split] = dictionary[i];
-            ln.delete(i);
-        }
-
-        return halfDict;
+    private void splitDictionary(LeafNode ln, int split, LeafNode into) {
+        int moved = ln.numPairs - split;
+        System.arraycopy(ln.dictionary, split, into.dictionary, 0, moved);
+        Arrays.fill(ln.dictionary, split, ln.numPairs, null);
+        ln.numPairs = split;
+        into.numPairs = moved;
     }
 
     /**
@@ -308,17 +545,17 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
 
         // Split keys and pointers in half
         int midpoint = getMidpoint();
-        int newParentKey = in.getKeys()[midpoint];
-        Integer[] halfKeys = splitKeys(in.getKeys(), midpoint);
-        TreeNode[] halfPointers = splitChildPointers(in, midpoint);
+        int newParentKey = in.getKey(midpoint);
+        InternalNode sibling = nodePool.internalNode();
+        splitKeys(in, midpoint, sibling);
+        splitChildPointers(in, midpoint, sibling);
 
         // Change degree of original InternalNode in
         in.setDegree(linearNullSearch(in.getChildPointers()).get());
 
-        // Create new sibling internal node and add half of keys and pointers
-        InternalNode sibling = new InternalNode(this.m, halfKeys, halfPointers);
-        for (TreeNode pointer : halfPointers) {
-            if (pointer != null) { pointer.parent = sibling; }
+        // Add half of keys and pointers to the new sibling internal node
+        for (int i = 0; i < sibling.getDegree(); i++) {
+            sibling.getChildPointers()[i].parent = sibling;
         }
 
         // Make internal nodes siblings of one another
@@ -332,9 +569,8 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
         if (parent == null) {
 
             // Create new root node and add midpoint key and pointers
-            Integer[] keys = new Integer[this.m];
-            keys[0] = newParentKey;
-            InternalNode newRoot = new InternalNode(this.m, keys);
+            InternalNode newRoot = nodePool.internalNode();
+            newRoot.appendKey(newParentKey);
             newRoot.appendChildPointer(in);
             newRoot.appendChildPointer(sibling);
             this.root = newRoot;
@@ -346,8 +582,7 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
         } else {
 
             // Add key to parent
-            parent.getKeys()[parent.getDegree() - 1] = newParentKey;
-            Arrays.sort(parent.getKeys(), 0, parent.getDegree());
+            parent.insertKey(newParentKey);
 
             // Set up pointer to new sibling
             int pointerIndex = parent.findIndexOfPointer(in).get() + 1;
@@ -357,50 +592,38 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
     }
 
     /**
-     * This method modifies a list of Integer-typed objects that represent keys
-     * by removing half of the keys and returning them in a separate Integer[].
+     * This method moves the keys after the split index into the keys of a
+     * new sibling; the key at the split index moves up to the parent. The
+     * sibling compresses its keys on its own, around its own prefix.
      * This method is used when splitting an InternalNode object.
-     * @param keys: a list of Integer objects
+     * @param in: the overfull InternalNode
      * @param split: the index where the split is to occur
-     * @return Integer[] of removed keys
+     * @param sibling: the empty new sibling
      */
-    private Integer[] splitKeys(Integer[] keys, int split) {
-
-        Integer[] halfKeys = new Integer[this.m];
-
-        // Remove split-indexed value from keys
-        keys[split] = null;
-
-        // Copy half of the values into halfKeys while updating original keys
-        for (int i = split + 1; i < keys.length; i++) {
-            halfKeys[i - split - 1] = keys[i];
-            keys[i] = null;
+    private void splitKeys(InternalNode in, int split, InternalNode sibling) {
+        for (int i = split + 1; i < in.getNumKeys(); i++) {
+            sibling.appendKey(in.getKey(i));
         }
-
-        return halfKeys;
+        in.truncateKeys(split);
     }
 
     /**
      * This method modifies the InternalNode 'in' by removing all pointers within
-     * the childPointers after the specified split. The method returns the removed
-     * pointers in a list of their own to be used when constructing a new
-     * InternalNode sibling.
+     * the childPointers after the specified split. The removed pointers are
+     * appended to the new, empty sibling InternalNode.
      * @param in: an InternalNode whose childPointers will be split
      * @param split: the index at which the split in the childPointers begins
-     * @return a Node[] of the removed pointers
+     * @param sibling: the InternalNode that receives the removed pointers
      */
-    private TreeNode[] splitChildPointers(InternalNode in, int split) {
+    private void splitChildPointers(InternalNode in, int split, InternalNode sibling) {
 
         TreeNode[] pointers = in.getChildPointers();
-        TreeNode[] halfPointers = new TreeNode[this.m + 1];
 
-        // Copy half of the values into halfPointers while updating original keys
-        for (int i = split + 1; i < pointers.length; i++) {
-            halfPointers[i - split - 1] = pointers[i];
-            in.removePointer(i);
+        // Move half of the values into the sibling while updating original pointers
+        for (int i = split + 1; i < pointers.length && pointers[i] != null; i++) {
+            sibling.appendChildPointer(pointers[i]);
+            pointers[i] = null;
         }
-
-        return halfPointers;
     }
 
 
@@ -446,6 +669,28 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      *             pair
      */
     public void delete(int key) {
+        long stamp = latch.writeLock();
+        try {
+            long ts = commitClock.get() + 1;
+            delete(key, ts);
+            commitClock.set(ts);
+            collectTombstones();
+            epochs.collect();
+        } finally {
+            latch.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * While a snapshot is open the dictionary pair stays in its leaf and a
+     * tombstone version is installed instead, so the snapshot can still see
+     * the deleted value. The tombstone is removed like a plain delete once
+     * no open snapshot is older than it, see collectTombstones().
+     * @param key: an integer key that corresponds with an existing dictionary
+     *             pair
+     * @param ts: commit timestamp of the delete
+     */
+    private void delete(int key, long ts) {
         if (isEmpty()) {
 
             /* Flow of execution goes here when B+ tree has no dictionary pairs */
@@ -459,122 +704,54 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
             int dpIndex = binarySearch(ln.dictionary, ln.numPairs, key);
 
 
-            if (dpIndex < 0) {
+            if (dpIndex < 0 || ln.dictionary[dpIndex].deleted) {
 
                 /* Flow of execution goes here when key is absent in B+ tree */
 
                 System.err.println("Invalid Delete: Key unable to be found.");
 
-            } else {
-
-                // Successfully delete the dictionary pair
-                ln.delete(dpIndex);
-
-                // Check for deficiencies
-                if (ln.isDeficient()) {
-
-                    LeafNode sibling;
-                    InternalNode parent = ln.parent;
+            } else if (!activeSnapshots.isEmpty()) {
 
-                    // Borrow: First, check the left sibling, then the right sibling
-                    if (ln.leftSibling != null &&
-                            ln.leftSibling.parent == ln.parent &&
-                            ln.leftSibling.isLendable()) {
+                /* Flow of execution goes here when a snapshot may still read the key */
 
-                        sibling = ln.leftSibling;
-                        DictionaryPair borrowedDP = sibling.dictionary[sibling.numPairs - 1];
-
-						/* Insert borrowed dictionary pair, sort dictionary,
-						   and delete dictionary pair from sibling */
-                        ln.insert(borrowedDP);
-                        sortDictionary(ln.dictionary);
-                        sibling.delete(sibling.numPairs - 1);
-
-                        // Update key in parent if necessary
-                        int pointerIndex = findIndexOfPointer(parent.getChildPointers(), ln);
-                        if (!(borrowedDP.key >= parent.getKeys()[pointerIndex - 1])) {
-                            parent.getKeys()[pointerIndex - 1] = ln.dictionary[0].key;
-                        }
+                DictionaryPair current = ln.dictionary[dpIndex];
+                current.prune(horizon());
+                DictionaryPair tombstone = new DictionaryPair(key, 0, ts, true, current);
+                ln.dictionary[dpIndex] = tombstone;
+                tombstones.addLast(tombstone);
+                if (tombstones.size() == 1) { oldestTombstone = ts; }
 
-                    } else if (ln.rightSibling != null &&
-                            ln.rightSibling.parent == ln.parent &&
-                            ln.rightSibling.isLendable()) {
-
-                        sibling = ln.rightSibling;
-                        DictionaryPair borrowedDP = sibling.dictionary[0];
-
-						/* Insert borrowed dictionary pair, sort dictionary,
-					       and delete dictionary pair from sibling */
-                        ln.insert(borrowedDP);
-                        sibling.delete(0);
-                        sortDictionary(sibling.dictionary);
-
-                        // Update key in parent if necessary
-                        int pointerIndex = findIndexOfPointer(parent.getChildPointers(), ln);
-                        if (!(borrowedDP.key < parent.getKeys()[pointerIndex])) {
-                            parent.getKeys()[pointerIndex] = sibling.dictionary[0].key;
-                        }
-
-                    }
-
-                    // Merge: First, check the left sibling, then the right sibling
-                    else if (ln.leftSibling != null &&
-                            ln.leftSibling.parent == ln.parent &&
-                            ln.leftSibling.isMergeable()) {
-
-                        sibling = ln.leftSibling;
-                        int pointerIndex = findIndexOfPointer(parent.getChildPointers(), ln);
-
-                        // Remove key and child pointer from parent
-                        parent.removeKey(pointerIndex - 1);
-                        parent.removePointer(ln);
-
-                        // Update sibling pointer
-                        sibling.rightSibling = ln.rightSibling;
-
-                        // Check for deficiencies in parent
-                        if (parent.isDeficient()) {
-                            handleDeficiency(parent);
-                        }
-
-                    } else if (ln.rightSibling != null &&
-                            ln.rightSibling.parent == ln.parent &&
-                            ln.rightSibling.isMergeable()) {
-
-                        sibling = ln.rightSibling;
-                        int pointerIndex = findIndexOfPointer(parent.getChildPointers(), ln);
-
-                        // Remove key and child pointer from parent
-                        parent.removeKey(pointerIndex);
-                        parent.removePointer(pointerIndex);
-
-                        // Update sibling pointer
-                        sibling.leftSibling = ln.leftSibling;
-                        if (sibling.leftSibling == null) {
-                            firstLeaf = sibling;
-                        }
-
-                        if (parent.isDeficient()) {
-                            handleDeficiency(parent);
-                        }
-                    }
+            } else {
+                removePair(ln, dpIndex);
+            }
+        }
+    }
 
-                } else if (this.root == null && this.firstLeaf.numPairs == 0) {
+    /**
+     * This method removes a dictionary pair from its leaf and rebalances the
+     * tree, i.e. the leaf borrows from or merges with a sibling, up to the
+     * root, and the tree is emptied with its last pair.
+     * @param ln: the leaf of the dictionary pair
+     * @param dpIndex: index of the dictionary pair within the leaf
+     */
+    private void removePair(LeafNode ln, int dpIndex) {
 
-					/* Flow of execution goes here when the deleted dictionary
-					   pair was the only pair within the tree */
+        // Successfully delete the dictionary pair, the leaf stays sorted
+        ln.delete(dpIndex);
 
-                    // Set first leaf as null to indicate B+ tree is empty
-                    this.firstLeaf = null;
+        // Borrow from or merge with a sibling, an empty leaf is never kept
+        if (this.root != null && (ln.isDeficient() || ln.numPairs == 0)) {
+            handleDeficiency(ln);
+        }
 
-                } else {
+        if (this.root == null && this.firstLeaf.numPairs == 0) {
 
-					/* The dictionary of the LeafNode object may need to be
-					   sorted after a successful delete */
-                    sortDictionary(ln.dictionary);
+			/* Flow of execution goes here when the deleted dictionary
+			   pair was the only pair within the tree */
 
-                }
-            }
+            // Set first leaf as null to indicate B+ tree is empty
+            epochs.retire(this.firstLeaf);
+            this.firstLeaf = null;
         }
     }
 
@@ -585,12 +762,33 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * @param value: a floating point number to be used in the dictionary pair
      */
     public void insert(int key, double value){
+        long stamp = latch.writeLock();
+        try {
+            long ts = commitClock.get() + 1;
+            insert(key, value, ts);
+            commitClock.set(ts);
+            collectTombstones();
+            epochs.collect();
+        } finally {
+            latch.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Inserting a key that is already in the tree installs a new version of
+     * its dictionary pair rather than a duplicate pair.
+     * @param key: an integer key to be used in the dictionary pair
+     * @param value: a floating point number to be used in the dictionary pair
+     * @param ts: commit timestamp of the insert
+     */
+    private void insert(int key, double value, long ts) {
+        DictionaryPair dp = new DictionaryPair(key, value, ts, false, null);
         if (isEmpty()) {
 
             /* Flow of execution goes here only when first insert takes place */
 
             // Create leaf node as first node in B plus tree (root is null)
-            LeafNode ln = new LeafNode(this.m, new DictionaryPair(key, value));
+            LeafNode ln = new LeafNode(this.leafM, dp);
 
             // Set as first leaf node (can be used later for in-order leaf traversal)
             this.firstLeaf = ln;
@@ -601,27 +799,35 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
             LeafNode ln = (this.root == null) ? this.firstLeaf :
                     findLeafNode(key);
 
+            // Key already present (possibly as a tombstone): add a version
+            int index = binarySearch(ln.dictionary, ln.numPairs, key);
+            if (index >= 0) {
+                DictionaryPair current = ln.dictionary[index];
+                current.prune(horizon());
+                ln.dictionary[index] = new DictionaryPair(key, value, ts, false, current);
+                return;
+            }
+
             // Insert into leaf node fails if node becomes overfull
-            if (!ln.insert(new DictionaryPair(key, value))) {
+            if (!ln.insert(dp)) {
 
-                // Sort all the dictionary pairs with the included pair to be inserted
-                ln.dictionary[ln.numPairs] = new DictionaryPair(key, value);
-                ln.numPairs++;
-                sortDictionary(ln.dictionary);
+                // Put the pair at its sorted position, in the spare slot of the full leaf
+                ln.insertAt(-index - 1, dp);
 
-                // Split the sorted pairs into two halves
-                int midpoint = getMidpoint();
-                DictionaryPair[] halfDict = splitDictionary(ln, midpoint);
+                // Split the sorted pairs into two halves, the new LeafNode holds the other half
+                int midpoint = getLeafMidpoint();
+                LeafNode newLeafNode = nodePool.leafNode(ln.parent);
+                splitDictionary(ln, midpoint, newLeafNode);
 
                 if (ln.parent == null) {
 
                     /* Flow of execution goes here when there is 1 node in tree */
 
                     // Create internal node to serve as parent, use dictionary midpoint key
-                    Integer[] parent_keys = new Integer[this.m];
-                    parent_keys[0] = halfDict[0].key;
-                    InternalNode parent = new InternalNode(this.m, parent_keys);
+                    InternalNode parent = nodePool.internalNode();
+                    parent.appendKey(separator(ln, newLeafNode));
                     ln.parent = parent;
+                    newLeafNode.parent = parent;
                     parent.appendChildPointer(ln);
 
                 } else {
@@ -629,14 +835,9 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
                     /* Flow of execution goes here when parent exists */
 
                     // Add new key to parent for proper indexing
-                    int newParentKey = halfDict[0].key;
-                    ln.parent.getKeys()[ln.parent.getDegree() - 1] = newParentKey;
-                    Arrays.sort(ln.parent.getKeys(), 0, ln.parent.getDegree());
+                    ln.parent.insertKey(separator(ln, newLeafNode));
                 }
 
-                // Create new LeafNode that holds the other half
-                LeafNode newLeafNode = new LeafNode(this.m, halfDict, ln.parent);
-
                 // Update child pointers of parent node
                 int pointerIndex = ln.parent.findIndexOfPointer(ln).get() + 1;
                 ln.parent.insertChildPointer(newLeafNode, pointerIndex);
@@ -679,24 +880,29 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * @return the floating point value associated with the key within the B+ tree
      */
     public Double search(int key) {
+        return optimisticRead(() -> {
 
-        // If B+ tree is completely empty, simply return null
-        if (isEmpty()) { return null; }
-
-        // Find leaf node that holds the dictionary key
-        LeafNode ln = (this.root == null) ? this.firstLeaf : findLeafNode(key);
-
-        // Perform binary search to find index of key within dictionary
-        DictionaryPair[] dps = ln.dictionary;
-        int index = binarySearch(dps, ln.numPairs, key);
+            // If the key doesn't exist in B+ tree or was deleted, return null
+            // TODO : Negative key needed for relationship
+            DictionaryPair dp = findPair(key);
+            return (dp == null || dp.deleted) ? null : dp.value;
+        });
+    }
 
-        // If index negative, the key doesn't exist in B+ tree
-        // TODO : Negative key needed for relationship
-        if (index < 0) {
-            return null;
-        } else {
-            return dps[index].value;
-        }
+    /**
+     * Given a key, this method returns the value associated with the key as
+     * of the snapshot, ignoring every later insert, update and delete.
+     * @param key: the key to be searched within the B+ tree
+     * @param snapshot: an open Snapshot of this tree
+     * @return the floating point value associated with the key at the
+     * snapshot, or null
+     */
+    public Double search(int key, Snapshot snapshot) {
+        return optimisticRead(() -> {
+            DictionaryPair dp = findPair(key);
+            DictionaryPair visible = (dp == null) ? null : dp.visibleAt(snapshot.getTimestamp());
+            return visible == null ? null : visible.value;
+        });
     }
 
     /**
@@ -709,6 +915,22 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
      * whose keys are within the specified range
      */
     public ArrayList<Double> search(int lowerBound, int upperBound) {
+        return optimisticRead(() -> search(lowerBound, upperBound, Long.MAX_VALUE));
+    }
+
+    /**
+     * Range search as of the snapshot.
+     * @param lowerBound: (int) the lower bound of the range
+     * @param upperBound: (int) the upper bound of the range
+     * @param snapshot: an open Snapshot of this tree
+     * @return an ArrayList<Double> that holds all values of dictionary pairs
+     * whose keys are within the specified range at the snapshot
+     */
+    public ArrayList<Double> search(int lowerBound, int upperBound, Snapshot snapshot) {
+        return optimisticRead(() -> search(lowerBound, upperBound, snapshot.getTimestamp()));
+    }
+
+    private ArrayList<Double> search(int lowerBound, int upperBound, long timestamp) {
 
         // Instantiate Double array to hold values
         ArrayList<Double> values = new ArrayList<Double>();
@@ -727,7 +949,8 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
 
                 // Include value if its key fits within the provided range
                 if (lowerBound <= dp.key && dp.key <= upperBound) {
-                    values.add(dp.value);
+                    DictionaryPair visible = dp.visibleAt(timestamp);
+                    if (visible != null) { values.add(visible.value); }
                 }
             }
 
@@ -739,4 +962,92 @@ public class GSBTree<K extends Comparable<K>, V> implements Serializable {
 
         return values;
     }
+
+    /*
+    * MVCC
+    * */
+
+    /**
+     * This method opens a snapshot at the latest commit timestamp. The
+     * snapshot is registered before any writer can observe the tree without
+     * it, which is checked against the latch stamp instead of taking the latch.
+     * @return an open Snapshot, to be closed once the reads are done
+     */
+    public Snapshot openSnapshot() {
+        while (true) {
+            long stamp = latch.tryOptimisticRead();
+            long ts = commitClock.get();
+            activeSnapshots.merge(ts, 1, Integer::sum);
+            if (stamp != 0 && latch.validate(stamp)) {
+                return new Snapshot(activeSnapshots, ts, this::snapshotClosed);
+            }
+            activeSnapshots.computeIfPresent(ts, (t, count) -> count == 1 ? null : count - 1);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * This method removes the tombstones that no open snapshot can see any
+     * more, oldest first, through the same path as a delete without
+     * snapshots: emptied leaves are merged away and the tree shrinks. A
+     * tombstone that was superseded by a later insert is skipped. Runs after
+     * every write, holding the write latch, and costs nothing while the
+     * oldest tombstone is still visible.
+     */
+    private void collectTombstones() {
+        long horizon = horizon();
+        DictionaryPair tombstone;
+        while ((tombstone = tombstones.peekFirst()) != null && tombstone.commitTs <= horizon) {
+            tombstones.pollFirst();
+            if (isEmpty()) { continue; }
+            LeafNode ln = (this.root == null) ? this.firstLeaf : findLeafNode(tombstone.key);
+            int dpIndex = binarySearch(ln.dictionary, ln.numPairs, tombstone.key);
+            if (dpIndex >= 0 && ln.dictionary[dpIndex] == tombstone) {
+                removePair(ln, dpIndex);
+            }
+        }
+        oldestTombstone = (tombstone == null) ? Long.MAX_VALUE : tombstone.commitTs;
+    }
+
+    /**
+     * Called by a Snapshot once it is closed. If that released tombstones
+     * they are collected right away, unless a writer holds the latch; the
+     * writer collects them itself, at the latest on its next write.
+     */
+    private void snapshotClosed() {
+
+        /* Read without the latch, a stale horizon only defers the collection */
+        if (oldestTombstone > horizon()) { return; }
+        long stamp = latch.tryWriteLock();
+        if (stamp == 0) { return; }
+        try {
+            collectTombstones();
+            epochs.collect();
+        } finally {
+            latch.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * This method garbage-collects versions that no open snapshot can see:
+     * version chains are cut at the oldest open snapshot, and tombstones
+     * older than it are removed, see collectTombstones(). Writes and closing
+     * snapshots collect the tombstones already; this also prunes the version
+     * chains of keys that were not written since.
+     */
+    public void vacuum() {
+        long stamp = latch.writeLock();
+        try {
+            long horizon = horizon();
+            for (LeafNode ln = this.firstLeaf; ln != null; ln = ln.rightSibling) {
+                for (int i = 0; i < ln.numPairs; i++) {
+                    ln.dictionary[i].prune(horizon);
+                }
+            }
+            collectTombstones();
+            epochs.collect();
+        } finally {
+            latch.unlockWrite(stamp);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package btree;
 
 import example.BPlusTree;
 
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -16,7 +17,19 @@ public class InternalNode extends TreeNode {
     private int minDegree;
     private int degree;
 
-    private Integer[] keys;
+    /*
+     * The keys, sorted. While they fit, they are kept compressed: key i is
+     * base + (deltas[i] << shift), where base is at most the smallest key
+     * (the common prefix) and shift the trailing zero bits all keys share
+     * above it (the common suffix). A node whose keys span more than 16 bits
+     * that way keeps them in the int[] keys instead, until it is cleared.
+     */
+    private int numKeys;
+    private int base;
+    private int shift;
+    private char[] deltas;
+    private int[] keys;
+
     private TreeNode[] childPointers;
 
     InternalNode leftSibling;
@@ -28,22 +41,14 @@ public class InternalNode extends TreeNode {
     * Constructor
     * ***********
     * */
-    public InternalNode(int m, Integer[] keys) {
+    public InternalNode(int m) {
         this.maxDegree = m;
         this.minDegree = (int)Math.ceil(m/2.0);
         this.degree = 0;
-        this.keys = keys;
+        this.deltas = new char[this.maxDegree];
         this.childPointers = new TreeNode[this.maxDegree+1];
     }
 
-    public InternalNode(int m, Integer[] keys, TreeNode[] pointers) {
-        this.maxDegree = m;
-        this.minDegree = (int)Math.ceil(m/2.0);
-        this.degree = linearNullSearch(pointers).get();
-        this.keys = keys;
-        this.childPointers = pointers;
-    }
-
     /*
     * *********
     * FUNCTIONS
@@ -60,12 +65,24 @@ public class InternalNode extends TreeNode {
         this.degree = degree;
     }
 
-    public Integer[] getKeys() {
-        return keys;
+    public int getNumKeys() {
+        return numKeys;
     }
 
-    public void setKeys(Integer[] keys) {
-        this.keys = keys;
+    /**
+     * @param index: the index of a key, below getNumKeys()
+     * @return the key
+     */
+    public int getKey(int index) {
+        int[] wide = this.keys;
+        return (wide != null) ? wide[index] : base + (deltas[index] << shift);
+    }
+
+    /**
+     * @return whether the keys are kept as 16-bit deltas
+     */
+    public boolean isCompact() {
+        return keys == null;
     }
 
     public TreeNode[] getChildPointers() {
@@ -78,6 +95,71 @@ public class InternalNode extends TreeNode {
 
 
 
+    /**
+     * Routes a key one level down: a binary search over the degree - 1 keys
+     * of this node for the number of keys that are not greater than key,
+     * which is the index of the child pointer to follow. The loop halves the
+     * range with a conditional move rather than a branch on the comparison,
+     * so it runs the same log2(degree) steps whatever the key.
+     * @param key: the key being looked up
+     * @return the index within childPointers of the subtree holding key
+     */
+    public int childIndex(int key) {
+        int n = this.numKeys;
+        int[] wide = this.keys;
+        if (wide != null) {
+            return childIndex(wide, n, key);
+        }
+        int b = this.base;
+        if (key < b) {
+            return 0;
+        }
+
+        // Keys not greater than key have deltas not greater than this one
+        long delta = Integer.toUnsignedLong(key - b) >>> this.shift;
+        return childIndex(this.deltas, n, (int) Math.min(delta, Character.MAX_VALUE));
+    }
+
+    /**
+     * @param keys: sorted keys
+     * @param numKeys: the number of keys in use
+     * @param key: the key being looked up
+     * @return the number of keys[0, numKeys) that are not greater than key
+     */
+    public static int childIndex(int[] keys, int numKeys, int key) {
+        if (numKeys <= 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = numKeys;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = (keys[base + half] <= key) ? base + half : base;
+            n -= half;
+        }
+        return (keys[base] <= key) ? base + 1 : base;
+    }
+
+    /**
+     * @param deltas: sorted deltas
+     * @param numKeys: the number of deltas in use
+     * @param delta: the delta being looked up
+     * @return the number of deltas[0, numKeys) that are not greater than delta
+     */
+    static int childIndex(char[] deltas, int numKeys, int delta) {
+        if (numKeys <= 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = numKeys;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = (deltas[base + half] <= delta) ? base + half : base;
+            n -= half;
+        }
+        return (deltas[base] <= delta) ? base + 1 : base;
+    }
+
     /**
      * @param pointer : Point to the child list
      */
@@ -171,33 +253,181 @@ public class InternalNode extends TreeNode {
     }
 
     /**
-     * This method sets keys[index] to null. This method is used within the
-     * parent of a merging, deficient LeafNode.
-     * @param index: the location within keys to be set to null
+     * Given a key and an integer index, this method inserts the key at the
+     * specified index within keys, shifting the following keys to the right.
+     * This method is used when a child pointer is borrowed from the left
+     * sibling.
+     * @param key: the key to be inserted
+     * @param index: the index at which the insert is to take place
+     */
+    public void insertKey(int key, int index) {
+        if (this.keys == null && fits(key)) {
+            System.arraycopy(this.deltas, index, this.deltas, index + 1, this.numKeys - index);
+            this.deltas[index] = delta(key);
+        } else {
+            int[] expanded = (this.keys != null) ? this.keys : decode();
+            System.arraycopy(expanded, index, expanded, index + 1, this.numKeys - index);
+            expanded[index] = key;
+            encode(expanded, this.numKeys + 1);
+        }
+        this.numKeys++;
+    }
+
+    /**
+     * This method inserts a key at its sorted position, i.e. before the
+     * first greater key.
+     * @param key: a key that is not in the node yet
      */
-    public void removeKey(int index) { this.keys[index] = null; }
+    public void insertKey(int key) {
+        insertKey(key, childIndex(key));
+    }
 
     /**
-     * This method sets childPointers[index] to null and additionally
-     * decrements the current degree of the InternalNode.
-     * @param index: the location within childPointers to be set to null
+     * This method adds a key after the last key.
+     * @param key: a key greater than every key of the node
+     */
+    public void appendKey(int key) {
+        insertKey(key, this.numKeys);
+    }
+
+    /**
+     * This method replaces keys[index], e.g. the separator between two
+     * children after one of them lent an entry to the other.
+     * @param index: the index of an existing key
+     * @param key: the new key, which keeps the keys sorted
+     */
+    public void setKey(int index, int key) {
+        if (this.keys != null) {
+            this.keys[index] = key;
+        } else if (fits(key)) {
+            this.deltas[index] = delta(key);
+        } else {
+            int[] expanded = decode();
+            expanded[index] = key;
+            encode(expanded, this.numKeys);
+        }
+    }
+
+    /**
+     * This method removes keys[index] and shifts the following keys to the
+     * left. This method is used within the parent of a merging, deficient
+     * node and when a key is lent to a sibling.
+     * @param index: the location within keys to be removed
+     */
+    public void removeKey(int index) {
+        if (this.keys != null) {
+            System.arraycopy(this.keys, index + 1, this.keys, index, this.numKeys - index - 1);
+        } else {
+            System.arraycopy(this.deltas, index + 1, this.deltas, index, this.numKeys - index - 1);
+        }
+        this.numKeys--;
+    }
+
+    /**
+     * This method drops the keys from index on, e.g. the half of the keys of
+     * a split node that went to its sibling.
+     * @param index: the number of keys that remain
+     */
+    public void truncateKeys(int index) {
+        this.numKeys = index;
+    }
+
+    /* Whether key is base + (delta << shift) for a 16-bit delta */
+    private boolean fits(int key) {
+        if (this.numKeys == 0 || key < this.base) {
+            return false;
+        }
+        // key - base may be beyond Integer.MAX_VALUE, it is an unsigned offset
+        long offset = Integer.toUnsignedLong(key - this.base);
+        return (offset & ((1L << this.shift) - 1)) == 0 && (offset >>> this.shift) <= Character.MAX_VALUE;
+    }
+
+    private char delta(int key) {
+        return (char) ((key - this.base) >>> this.shift);
+    }
+
+    /* The compressed keys as ints, in an array with room for all maxDegree keys */
+    private int[] decode() {
+        int[] decoded = new int[this.maxDegree];
+        for (int i = 0; i < this.numKeys; i++) {
+            decoded[i] = this.base + (this.deltas[i] << this.shift);
+        }
+        return decoded;
+    }
+
+    /**
+     * This method chooses the base and shift for the first n keys and
+     * compresses them, or keeps them as ints if they do not fit.
+     * @param expanded: the keys, with room for all maxDegree keys
+     * @param n: the number of keys
+     */
+    private void encode(int[] expanded, int n) {
+        int min = expanded[0];
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, expanded[i]);
+        }
+        int bits = 0;
+        long max = 0;
+        for (int i = 0; i < n; i++) {
+            bits |= expanded[i] - min;
+            max = Math.max(max, Integer.toUnsignedLong(expanded[i] - min));
+        }
+        int s = (bits == 0) ? 0 : Integer.numberOfTrailingZeros(bits);
+        if ((max >>> s) > Character.MAX_VALUE) {
+            this.keys = expanded;
+            this.deltas = null;
+            return;
+        }
+        if (this.deltas == null) {
+            this.deltas = new char[this.maxDegree];
+        }
+        this.base = min;
+        this.shift = s;
+        for (int i = 0; i < n; i++) {
+            this.deltas[i] = delta(expanded[i]);
+        }
+        this.keys = null;
+    }
+
+    /**
+     * This method removes childPointers[index], shifts the following
+     * pointers to the left and additionally decrements the current degree
+     * of the InternalNode.
+     * @param index: the location within childPointers to be removed
      */
     public void removePointer(int index) {
-        this.childPointers[index] = null;
+        System.arraycopy(this.childPointers, index + 1, this.childPointers, index, this.degree - index - 1);
+        this.childPointers[this.degree - 1] = null;
         this.degree--;
     }
 
     /**
      * This method removes 'pointer' from the childPointers instance
-     * variable and decrements the current degree of the InternalNode. The
-     * index where the pointer node was assigned is set to null.
+     * variable, shifts the following pointers to the left and decrements
+     * the current degree of the InternalNode.
      * @param pointer: the Node pointer to be removed from childPointers
      */
     public void removePointer(TreeNode pointer) {
-        for (int i = 0; i < childPointers.length; i++) {
-            if (childPointers[i] == pointer) { this.childPointers[i] = null; }
+        findIndexOfPointer(pointer).ifPresent(this::removePointer);
+    }
+
+    /**
+     * This method empties the InternalNode and detaches it from the tree,
+     * so it can be reused by a later split.
+     */
+    void clear() {
+        if (this.deltas == null) {
+            this.deltas = new char[this.maxDegree];
         }
-        this.degree--;
+        this.keys = null;
+        this.numKeys = 0;
+        this.base = 0;
+        this.shift = 0;
+        Arrays.fill(this.childPointers, null);
+        this.degree = 0;
+        this.parent = null;
+        this.leftSibling = null;
+        this.rightSibling = null;
     }
 
 
@@ -60,6 +60,18 @@ public class LeafNode extends TreeNode {
         this.insert(dp);
     }
 
+    /**
+     * Constructor
+     * @param m: order of B+ tree that is used to calculate maxNumPairs and
+     *           minNumPairs
+     */
+    public LeafNode(int m) {
+        this.maxNumPairs = m - 1;
+        this.minNumPairs = (int)(Math.ceil(m/2) - 1);
+        this.dictionary = new DictionaryPair[m];
+        this.numPairs = 0;
+    }
+
     /**
      * Constructor
      * @param dps: list of DictionaryPair objects to be immediately inserted
@@ -105,11 +117,38 @@ public class LeafNode extends TreeNode {
         return Optional.empty();
     }
 
+    /**
+     * This method performs a binary search for a key among the dictionary
+     * pairs of the LeafNode, comparing the primitive keys directly.
+     * @param key: the key to be searched for
+     * @return index of the key if found, else -(insertion point) - 1
+     */
+    public int indexOf(int key) {
+        return indexOf(dictionary, numPairs, key);
+    }
+
+    static int indexOf(DictionaryPair[] dictionary, int numPairs, int key) {
+        int low = 0;
+        int high = numPairs - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midKey = dictionary[mid].key;
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
     /**
      * This method attempts to insert a dictionary pair within the dictionary
-     * of the LeafNode object. If it succeeds, numPairs increments, the
-     * dictionary is sorted, and the boolean true is returned. If the method
-     * fails, the boolean false is returned.
+     * of the LeafNode object. If it succeeds, the pair is placed at its
+     * sorted position, numPairs increments, and the boolean true is returned.
+     * If the method fails, the boolean false is returned.
      * @param dp: the dictionary pair to be inserted
      * @return a boolean indicating whether or not the insert was successful
      */
@@ -120,30 +159,54 @@ public class LeafNode extends TreeNode {
 
             return false;
         } else {
-
-            // Insert dictionary pair, increment numPairs, sort dictionary
-            this.dictionary[numPairs] = dp;
-            numPairs++;
-            Arrays.sort(this.dictionary, 0, numPairs);
-
+            int index = indexOf(dp.key);
+            insertAt(index < 0 ? -index - 1 : index, dp);
             return true;
         }
     }
 
     /**
-     * Given an index, this method sets the dictionary pair at that index
-     * within the dictionary to null.
-     * @param index: the location within the dictionary to be set to null
+     * This method shifts the dictionary pairs from index on one place to the
+     * right and puts the dictionary pair at index. It may use the spare
+     * slot past maxNumPairs, which holds the extra pair of a leaf about to
+     * be split.
+     * @param index: the sorted position of the dictionary pair
+     * @param dp: the dictionary pair to be inserted
+     */
+    void insertAt(int index, DictionaryPair dp) {
+        System.arraycopy(this.dictionary, index, this.dictionary, index + 1, numPairs - index);
+        this.dictionary[index] = dp;
+        numPairs++;
+    }
+
+    /**
+     * Given an index, this method removes the dictionary pair at that index
+     * and shifts the pairs after it one place to the left, so the dictionary
+     * stays sorted and compact.
+     * @param index: the location within the dictionary to be removed
      */
     public void delete(int index) {
 
-        // Delete dictionary pair from leaf
-        this.dictionary[index] = null;
+        // Close the gap and clear the slot that became free
+        System.arraycopy(this.dictionary, index + 1, this.dictionary, index, numPairs - index - 1);
+        this.dictionary[numPairs - 1] = null;
 
         // Decrement numPairs
         numPairs--;
     }
 
+    /**
+     * This method empties the LeafNode and detaches it from the tree, so it
+     * can be reused by a later split.
+     */
+    void clear() {
+        Arrays.fill(this.dictionary, null);
+        this.numPairs = 0;
+        this.parent = null;
+        this.leftSibling = null;
+        this.rightSibling = null;
+    }
+
     /**
      * This simple method determines if the LeafNode is deficient, i.e.
      * the numPairs within the LeafNode object is below minNumPairs.
@@ -164,12 +227,12 @@ public class LeafNode extends TreeNode {
      * This simple method determines if the LeafNode object is capable of
      * lending a dictionary pair to a deficient leaf node. The LeafNode
      * object can lend a dictionary pair if its numPairs is greater than
-     * the minimum number of pairs it can hold.
+     * the minimum number of pairs it can hold, and it is not left empty.
      * @return a boolean indicating whether or not the LeafNode object can
      * give a dictionary pair to a deficient leaf node
      */
     public boolean isLendable() {
-        return numPairs > minNumPairs;
+        return numPairs > Math.max(minNumPairs, 1);
     }
 
     /**
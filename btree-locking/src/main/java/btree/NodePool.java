@@ -0,0 +1,92 @@
+package btree;
+
+import java.util.ArrayDeque;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 06:25
+ */
+
+/**
+ * Free lists of the LeafNode and InternalNode objects of one GSBTree. Nodes
+ * unlinked by a merge come back here through the EpochManager once no reader
+ * can see them, and a split takes its new node, arrays included, from here
+ * instead of allocating it. Only used by writers, i.e. holding the write
+ * latch of the tree.
+ */
+final class NodePool {
+
+    private final int leafM;
+    private final int m;
+    private final int capacity;
+    private final ArrayDeque<LeafNode> leafNodes = new ArrayDeque<>();
+    private final ArrayDeque<InternalNode> internalNodes = new ArrayDeque<>();
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    /**
+     * Constructor
+     * @param leafM: order of the LeafNodes of the B+ tree the nodes belong to
+     * @param m: order of its InternalNodes
+     * @param capacity: maximum number of free nodes kept per node type
+     */
+    NodePool(int leafM, int m, int capacity) {
+        this.leafM = leafM;
+        this.m = m;
+        this.capacity = capacity;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    /**
+     * @param parent: parent of the new leaf
+     * @return an empty LeafNode
+     */
+    LeafNode leafNode(InternalNode parent) {
+        LeafNode ln = leafNodes.poll();
+        if (ln == null) {
+            ln = new LeafNode(this.leafM);
+        }
+        ln.parent = parent;
+        return ln;
+    }
+
+    /**
+     * @return an InternalNode without keys and children
+     */
+    InternalNode internalNode() {
+        InternalNode in = internalNodes.poll();
+        return (in == null) ? new InternalNode(this.m) : in;
+    }
+
+    /**
+     * Clear a reclaimed node and keep it for reuse, unless the pool is full.
+     * @param node: a node that no reader can reach any more
+     */
+    void recycle(TreeNode node) {
+        if (node instanceof LeafNode) {
+            LeafNode ln = (LeafNode) node;
+            if (leafNodes.size() < capacity) {
+                ln.clear();
+                leafNodes.push(ln);
+            }
+        } else {
+            InternalNode in = (InternalNode) node;
+            if (internalNodes.size() < capacity) {
+                in.clear();
+                internalNodes.push(in);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package btree;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 07:05
+ */
+
+/**
+ * Chooses the orders of a GSBTree from a target node size in bytes, e.g. a
+ * few cache lines (256 B) or a page (4 KiB, 16 KiB), instead of a fanout.
+ * The sizes are HotSpot's on a 64-bit JVM with compressed oops, i.e. heaps
+ * below 32 GiB:
+ * <ul>
+ *     <li>an InternalNode of order m: char[m] compressed keys and
+ *     TreeNode[m + 1] children, 36 + 6m bytes; a node whose keys do not
+ *     compress keeps them in an int[m] instead, 2m bytes more</li>
+ *     <li>a LeafNode of order m: DictionaryPair[m] and its m - 1 pairs of
+ *     40 bytes each, 16 + 4m + 40(m - 1) bytes</li>
+ * </ul>
+ * The node objects themselves, a few fields each, are left out. A leaf
+ * entry costs more than seven internal entries, so the leaves of the same
+ * byte size have a much smaller order.
+ * <pre>
+ *     GSBTree&lt;Integer, Double&gt; tree = GSBTree.forNodeSize(NodeSizing.PAGE);
+ * </pre>
+ */
+public final class NodeSizing {
+
+    public static final int CACHE_LINES = 256;
+    public static final int PAGE = 4 * 1024;
+    public static final int LARGE_PAGE = 16 * 1024;
+
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    /* A compressed key of an InternalNode */
+    static final int KEY = Character.BYTES;
+    /* Object header, key, value, commitTs, deleted and older, padded to 8 */
+    static final int PAIR = 40;
+
+    /* The smallest order the splits and merges of GSBTree work with */
+    static final int MIN_ORDER = 3;
+
+    private NodeSizing() {
+    }
+
+    /**
+     * @param nodeBytes: the target size of a LeafNode
+     * @return the largest leaf order whose node fits, at least MIN_ORDER
+     */
+    public static int leafOrder(int nodeBytes) {
+        return Math.max(MIN_ORDER, (nodeBytes - ARRAY_HEADER + PAIR) / (REFERENCE + PAIR));
+    }
+
+    /**
+     * @param nodeBytes: the target size of an InternalNode
+     * @return the largest internal order whose node fits, at least MIN_ORDER
+     */
+    public static int internalOrder(int nodeBytes) {
+        return Math.max(MIN_ORDER, (nodeBytes - 2 * ARRAY_HEADER - REFERENCE) / (KEY + REFERENCE));
+    }
+
+    /**
+     * @param m: a leaf order
+     * @return the bytes of a full LeafNode of that order
+     */
+    public static long leafBytes(int m) {
+        return ARRAY_HEADER + (long) REFERENCE * m + (long) PAIR * (m - 1);
+    }
+
+    /**
+     * @param m: an internal order
+     * @return the bytes of an InternalNode of that order
+     */
+    public static long internalBytes(int m) {
+        return 2 * ARRAY_HEADER + (long) KEY * m + (long) REFERENCE * (m + 1);
+    }
+}
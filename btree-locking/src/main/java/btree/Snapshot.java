@@ -0,0 +1,49 @@
+package btree;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 05:02
+ */
+
+/**
+ * A read snapshot of a GSBTree. Searches with a Snapshot see every write
+ * committed at or before its timestamp and nothing after, without taking any
+ * lock. Versions that an open Snapshot may still need are kept alive, so a
+ * Snapshot must be closed.
+ */
+public final class Snapshot implements AutoCloseable {
+
+    private final ConcurrentSkipListMap<Long, Integer> active;
+    private final long timestamp;
+    private final Runnable onClose;
+    private boolean closed;
+
+    Snapshot(ConcurrentSkipListMap<Long, Integer> active, long timestamp, Runnable onClose) {
+        this.active = active;
+        this.timestamp = timestamp;
+        this.onClose = onClose;
+    }
+
+    /**
+     * @return the commit timestamp this snapshot reads at
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Close the snapshot, so that the versions only it could see can be
+     * collected; the tree collects the deleted ones right away.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) { return; }
+            closed = true;
+            active.computeIfPresent(timestamp, (ts, count) -> count == 1 ? null : count - 1);
+        }
+        onClose.run();
+    }
+}
@@ -0,0 +1,155 @@
+package capture;
+
+import replay.BinaryTrace;
+import replay.TraceHandler;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 10:40
+ */
+
+/**
+ * Puts the operations drained from a TraceRing back into commit order.
+ * Listeners run on the committing threads after the commit, so a
+ * transaction may reach the ring before one that committed earlier. The
+ * operations of a transaction are buffered until its TraceRing.COMMIT,
+ * and complete transactions are written by ascending transaction id: at
+ * once if the id follows the last one written, otherwise after a grace
+ * period in which the missing ids may still arrive. Ids that never arrive,
+ * e.g. those of token transactions, only cost that delay. A transaction
+ * that arrives after a later one was written is written at once and
+ * counted as late. Only used by the writer thread of a TraceCapture.
+ */
+final class CommitOrder implements TraceRing.Sink {
+
+    private final TraceHandler handler;
+    private final long graceNanos;
+
+    /* Transaction id -> its operations, until its COMMIT, and after that until its turn */
+    private final Map<Long, Transaction> open = new HashMap<>();
+    private final TreeMap<Long, Transaction> committed = new TreeMap<>();
+
+    /* The id that follows the last transaction written, -1 before the first one */
+    private long next = -1;
+    private volatile long late;
+    /* Operations of late transactions, written but not yet returned by flush */
+    private int lateOperations;
+
+    /**
+     * The buffered operations of one transaction.
+     */
+    private static final class Transaction {
+
+        byte[] opcodes = new byte[4];
+        int[] keys = new int[4];
+        int[] arguments = new int[4];
+        double[] values = new double[4];
+        int size;
+        long committedNanos;
+
+        void add(byte opcode, int key, int argument, double value) {
+            if (size == opcodes.length) {
+                opcodes = Arrays.copyOf(opcodes, 2 * size);
+                keys = Arrays.copyOf(keys, 2 * size);
+                arguments = Arrays.copyOf(arguments, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            opcodes[size] = opcode;
+            keys[size] = key;
+            arguments[size] = argument;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /**
+     * @param handler: receives the operations in commit order
+     * @param graceNanos: how long a complete transaction waits for missing earlier ids
+     */
+    CommitOrder(TraceHandler handler, long graceNanos) {
+        this.handler = handler;
+        this.graceNanos = graceNanos;
+    }
+
+    @Override
+    public void accept(long transaction, byte opcode, int key, int argument, double value) throws IOException {
+        if (opcode != TraceRing.COMMIT) {
+            open.computeIfAbsent(transaction, id -> new Transaction()).add(opcode, key, argument, value);
+            return;
+        }
+        Transaction complete = open.remove(transaction);
+        complete = (complete == null) ? new Transaction() : complete;
+        if (next != -1 && transaction < next) {
+            late++;
+            lateOperations += write(complete);
+        } else {
+            complete.committedNanos = System.nanoTime();
+            committed.put(transaction, complete);
+        }
+    }
+
+    /**
+     * Writes the complete transactions whose turn it is.
+     * @param all: write every buffered transaction, complete or not, e.g. on close
+     * @return the number of operations written
+     */
+    int flush(boolean all) throws IOException {
+        if (all) {
+            for (Map.Entry<Long, Transaction> incomplete : open.entrySet()) {
+                committed.putIfAbsent(incomplete.getKey(), incomplete.getValue());
+            }
+            open.clear();
+        }
+        long now = System.nanoTime();
+        int written = lateOperations;
+        lateOperations = 0;
+        Map.Entry<Long, Transaction> first;
+        while ((first = committed.firstEntry()) != null) {
+            long transaction = first.getKey();
+            if (!all && transaction != next && now - first.getValue().committedNanos < graceNanos) {
+                break;
+            }
+            committed.pollFirstEntry();
+            written += write(first.getValue());
+            next = Math.max(next, transaction + 1);
+        }
+        return written;
+    }
+
+    /**
+     * @return transactions written out of commit order, because they arrived
+     * after the grace period of a later one
+     */
+    long getLate() {
+        return late;
+    }
+
+    private int write(Transaction transaction) throws IOException {
+        for (int i = 0; i < transaction.size; i++) {
+            switch (transaction.opcodes[i]) {
+                case BinaryTrace.INITIALIZE:
+                    handler.initialize(transaction.arguments[i]);
+                    break;
+                case BinaryTrace.INSERT:
+                    handler.insert(transaction.keys[i], transaction.values[i]);
+                    break;
+                case BinaryTrace.DELETE:
+                    handler.delete(transaction.keys[i]);
+                    break;
+                case BinaryTrace.SEARCH:
+                    handler.search(transaction.keys[i]);
+                    break;
+                default:
+                    handler.search(transaction.keys[i], transaction.arguments[i]);
+                    break;
+            }
+        }
+        return transaction.size;
+    }
+}
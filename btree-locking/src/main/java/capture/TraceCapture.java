@@ -0,0 +1,170 @@
+package capture;
+
+import org.neo4j.dbms.api.DatabaseManagementService;
+import replay.BinaryTraceWriter;
+import replay.TextTraceWriter;
+import replay.TraceWriter;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 05:30
+ */
+
+/**
+ * Records the committed transactions of a database into a trace file that
+ * Bootstrap, PartitionedReplay or BinaryTraceReplayer replay. A
+ * TraceCaptureListener puts the operations into a TraceRing on the
+ * committing threads; a daemon writer thread drains the ring in the
+ * background, restores the commit order by transaction id, see CommitOrder,
+ * and flushes the file whenever the ring runs empty. The trace starts with
+ * Initialize(m). close() unregisters the listener and writes what is left.
+ * <pre>
+ *     try (TraceCapture capture = TraceCapture.start(neo4j.databaseManagementService(), "neo4j",
+ *             Paths.get("trace.bin"), true, 64, 1 << 20, "value")) {
+ *         ...
+ *     }
+ * </pre>
+ */
+public class TraceCapture implements AutoCloseable {
+
+    /* Operations written per drain, between checks for close */
+    private static final int BATCH = 4096;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /* How long a transaction waits for the transactions that committed before it */
+    private static final long COMMIT_ORDER_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final DatabaseManagementService managementService;
+    private final String database;
+    private final TraceRing ring;
+    private final TraceCaptureListener listener;
+    private final TraceWriter writer;
+    private final CommitOrder commitOrder;
+    private final Thread writerThread;
+    private final AtomicLong written = new AtomicLong();
+
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    private TraceCapture(DatabaseManagementService managementService, String database, TraceWriter writer,
+                         int m, int capacity, String valueProperty) throws IOException {
+        this.managementService = managementService;
+        this.database = database;
+        this.ring = new TraceRing(capacity);
+        this.listener = new TraceCaptureListener(ring, valueProperty);
+        this.writer = writer;
+        this.commitOrder = new CommitOrder(writer, COMMIT_ORDER_GRACE_NANOS);
+        writer.initialize(m);
+        written.incrementAndGet();
+        this.writerThread = new Thread(this::write, "trace-capture-" + database);
+        writerThread.setDaemon(true);
+        writerThread.start();
+        managementService.registerTransactionEventListener(database, listener);
+    }
+
+    /**
+     * Start recording a database.
+     * @param managementService: the DBMS, e.g. Neo4j.databaseManagementService() of the harness
+     * @param database: the database to record, e.g. "neo4j"
+     * @param file: the trace file, overwritten
+     * @param binary: true for a BinaryTrace, false for the Bootstrap input format
+     * @param m: the order written as Initialize(m)
+     * @param capacity: operations the ring holds before it drops
+     * @param valueProperty: the numeric property that is the value of an entity
+     * @return the running capture
+     */
+    public static TraceCapture start(DatabaseManagementService managementService, String database, Path file,
+                                     boolean binary, int m, int capacity, String valueProperty) throws IOException {
+        FileOutputStream out = new FileOutputStream(file.toFile(), false);
+        TraceWriter writer = binary ? new BinaryTraceWriter(out) : new TextTraceWriter(out);
+        return new TraceCapture(managementService, database, writer, m, capacity, valueProperty);
+    }
+
+    private void write() {
+        boolean unflushed = false;
+        try {
+            while (!closed) {
+                int drained = ring.drain(commitOrder, BATCH);
+                int ordered = commitOrder.flush(false);
+                if (ordered > 0) {
+                    written.addAndGet(ordered);
+                    unflushed = true;
+                }
+                if (drained == 0) {
+                    if (unflushed) {
+                        writer.flush();
+                        unflushed = false;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * @return operations written to the file so far, Initialize included
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return transactions written out of commit order, because their
+     * listener ran more than the grace period after a later one's
+     */
+    public long getLate() {
+        return commitOrder.getLate();
+    }
+
+    /**
+     * @return operations dropped because the writer fell a whole ring behind
+     */
+    public long getDropped() {
+        return ring.getDropped();
+    }
+
+    public long getTransactions() {
+        return listener.getTransactions();
+    }
+
+    /**
+     * @param out: where the counts are printed
+     */
+    public void report(PrintStream out) {
+        out.printf("trace capture of %s: %d transactions, %d operations written, %d dropped, %d skipped,"
+                        + " %d transactions out of commit order%n",
+                database, getTransactions(), getWritten(), getDropped(), listener.getSkipped(), getLate());
+    }
+
+    @Override
+    public void close() throws IOException {
+        managementService.unregisterTransactionEventListener(database, listener);
+        closed = true;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            while (ring.drain(commitOrder, BATCH) > 0) {
+                written.addAndGet(commitOrder.flush(false));
+            }
+            written.addAndGet(commitOrder.flush(true));
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package capture;
+
+import org.neo4j.graphdb.Entity;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListener;
+import replay.BinaryTrace;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 05:20
+ */
+
+/**
+ * Turns every committed transaction into the operations it makes on an
+ * index of the graph's entities, as GSBTree would hold it: the key of a
+ * node is its id, the key of a relationship -(id + 1), and the value of an
+ * entity its numeric valueProperty (0 without one).
+ * <ul>
+ *     <li>a deleted entity: Delete(key)</li>
+ *     <li>a created entity: Insert(key, value)</li>
+ *     <li>valueProperty set or removed on an existing entity: Insert(key, value)</li>
+ * </ul>
+ * Other changes do not touch the index, and reads never reach a
+ * transaction listener, so the trace only has writes. The operations go to
+ * a TraceRing, tagged with the transaction id and followed by a
+ * TraceRing.COMMIT; the listener never blocks a commit. Listeners of
+ * concurrent commits may run in any order, the consumer of the ring
+ * restores the commit order from the ids. Entities whose key does not fit
+ * an int are skipped and counted.
+ */
+public class TraceCaptureListener implements TransactionEventListener<Void> {
+
+    private final TraceRing ring;
+    private final String valueProperty;
+
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * @param ring: where the operations go
+     * @param valueProperty: the numeric property that is the value of an entity
+     */
+    public TraceCaptureListener(TraceRing ring, String valueProperty) {
+        this.ring = ring;
+        this.valueProperty = valueProperty;
+    }
+
+    @Override
+    public Void beforeCommit(TransactionData data, Transaction transaction, GraphDatabaseService databaseService) {
+        return null;
+    }
+
+    @Override
+    public void afterCommit(TransactionData data, Void state, GraphDatabaseService databaseService) {
+        transactions.increment();
+        long transaction = data.getTransactionId();
+        for (Node node : data.deletedNodes()) {
+            delete(transaction, nodeKey(node.getId()));
+        }
+        for (Relationship relationship : data.deletedRelationships()) {
+            delete(transaction, relationshipKey(relationship.getId()));
+        }
+
+        Predicate<Node> deletedNode = data::isDeleted;
+        Predicate<Relationship> deletedRelationship = data::isDeleted;
+        Map<Long, Double> nodeValues = values(
+                data.assignedNodeProperties(), data.removedNodeProperties(), deletedNode);
+        Map<Long, Double> relationshipValues = values(
+                data.assignedRelationshipProperties(), data.removedRelationshipProperties(), deletedRelationship);
+        for (Node node : data.createdNodes()) {
+            Double value = nodeValues.remove(node.getId());
+            insert(transaction, nodeKey(node.getId()), value == null ? 0 : value);
+        }
+        for (Relationship relationship : data.createdRelationships()) {
+            Double value = relationshipValues.remove(relationship.getId());
+            insert(transaction, relationshipKey(relationship.getId()), value == null ? 0 : value);
+        }
+        for (Map.Entry<Long, Double> updated : nodeValues.entrySet()) {
+            insert(transaction, nodeKey(updated.getKey()), updated.getValue());
+        }
+        for (Map.Entry<Long, Double> updated : relationshipValues.entrySet()) {
+            insert(transaction, relationshipKey(updated.getKey()), updated.getValue());
+        }
+        ring.offer(TraceRing.COMMIT, transaction, 0, 0, 0);
+    }
+
+    @Override
+    public void afterRollback(TransactionData data, Void state, GraphDatabaseService databaseService) {
+    }
+
+    public long getTransactions() {
+        return transactions.sum();
+    }
+
+    /**
+     * @return entities skipped because their key does not fit an int
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /* Entity id -> value, for the surviving entities whose valueProperty changed */
+    private <T extends Entity> Map<Long, Double> values(Iterable<PropertyEntry<T>> assigned,
+                                                        Iterable<PropertyEntry<T>> removed, Predicate<T> deleted) {
+        Map<Long, Double> values = null;
+        for (PropertyEntry<T> entry : assigned) {
+            if (entry.key().equals(valueProperty) && !deleted.test(entry.entity())) {
+                Object value = entry.value();
+                values = values == null ? new HashMap<>() : values;
+                values.put(entry.entity().getId(), value instanceof Number ? ((Number) value).doubleValue() : 0);
+            }
+        }
+        for (PropertyEntry<T> entry : removed) {
+            if (entry.key().equals(valueProperty) && !deleted.test(entry.entity())) {
+                values = values == null ? new HashMap<>() : values;
+                values.put(entry.entity().getId(), 0.0);
+            }
+        }
+        return values == null ? Collections.emptyMap() : values;
+    }
+
+    private void delete(long transaction, long key) {
+        if (fits(key)) {
+            ring.offer(BinaryTrace.DELETE, transaction, (int) key, 0, 0);
+        }
+    }
+
+    private void insert(long transaction, long key, double value) {
+        if (fits(key)) {
+            ring.offer(BinaryTrace.INSERT, transaction, (int) key, 0, value);
+        }
+    }
+
+    private boolean fits(long key) {
+        if (key == (int) key) {
+            return true;
+        }
+        skipped.increment();
+        return false;
+    }
+
+    private static long nodeKey(long id) {
+        return id;
+    }
+
+    private static long relationshipKey(long id) {
+        return -(id + 1);
+    }
+}
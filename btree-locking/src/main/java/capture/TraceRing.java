@@ -0,0 +1,147 @@
+package capture;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 05:00
+ */
+
+/**
+ * A bounded, lock-free ring of trace operations with many producers and a
+ * single consumer. Every slot has a sequence number: a producer claims the
+ * next position with one CAS, fills the slot and publishes it by advancing
+ * the slot's sequence; the consumer reads published slots in order and
+ * hands them back by advancing the sequence a lap further. Operations are
+ * kept in primitive arrays, so offering allocates nothing. When the ring
+ * is full an operation is dropped and counted rather than stalling the
+ * producer. Every operation carries the id of its transaction, and a
+ * COMMIT ends the operations of one, so the consumer can restore commit
+ * order, see CommitOrder.
+ */
+public final class TraceRing {
+
+    /* Ends the operations of a transaction, not a BinaryTrace opcode */
+    public static final byte COMMIT = 0;
+
+    /**
+     * Receives the operations of a drain, in ring order.
+     */
+    public interface Sink {
+
+        /**
+         * @param transaction: the id of the transaction of the operation
+         * @param opcode: a BinaryTrace opcode or COMMIT
+         * @param key: the key, or the lower bound of a range search
+         * @param argument: the order of Initialize, or the upper bound of a range search
+         * @param value: the value of an insert
+         */
+        void accept(long transaction, byte opcode, int key, int argument, double value) throws IOException;
+    }
+
+    private final int mask;
+    private final long[] transactions;
+    private final byte[] opcodes;
+    private final int[] keys;
+    private final int[] arguments;
+    private final double[] values;
+
+    /* position + 1 once the slot of position is published, position + capacity once consumed */
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity: operations the ring holds, rounded up to a power of two
+     */
+    public TraceRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.transactions = new long[size];
+        this.opcodes = new byte[size];
+        this.keys = new int[size];
+        this.arguments = new int[size];
+        this.values = new double[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an operation, from any thread.
+     * @param opcode: a BinaryTrace opcode, or COMMIT after the last operation of a transaction
+     * @param transaction: the id of the transaction of the operation
+     * @param key: the key, or the lower bound of a range search
+     * @param argument: the order of Initialize, or the upper bound of a range search
+     * @param value: the value of an insert
+     * @return false if the ring was full and the operation was dropped
+     */
+    public boolean offer(byte opcode, long transaction, int key, int argument, double value) {
+        long position = tail.get();
+        while (true) {
+            int slot = (int) position & mask;
+            long difference = sequences.getAcquire(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    transactions[slot] = transaction;
+                    opcodes[slot] = opcode;
+                    keys[slot] = key;
+                    arguments[slot] = argument;
+                    values[slot] = value;
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hands published operations to the sink, in order. Only one thread
+     * may drain.
+     * @param sink: receives the operations
+     * @param max: the most operations to hand over
+     * @return the number of operations handed over
+     */
+    public int drain(Sink sink, int max) throws IOException {
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) head & mask;
+            if (sequences.getAcquire(slot) != head + 1) {
+                break;
+            }
+            long transaction = transactions[slot];
+            byte opcode = opcodes[slot];
+            int key = keys[slot];
+            int argument = arguments[slot];
+            double value = values[slot];
+            sequences.setRelease(slot, head + mask + 1);
+            head++;
+            drained++;
+            sink.accept(transaction, opcode, key, argument, value);
+        }
+        return drained;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return operations dropped because the ring was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
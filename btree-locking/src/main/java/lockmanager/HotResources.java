@@ -0,0 +1,202 @@
+package lockmanager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 01:22
+ */
+
+/**
+ * Space-Saving sketch of the most contended resources. The resources are
+ * hashed over stripes, each a sketch with its own lock that keeps at most
+ * capacity counters; when a new resource arrives and its stripe is full,
+ * the resource with the smallest count is evicted and the newcomer
+ * inherits that count as its error bound. Every resource whose real count
+ * is above total / capacity is guaranteed to be in the sketch. Waits on
+ * different resources rarely count under the same lock, and top() merges
+ * the stripes, whose resources are disjoint. The counters of a stripe form
+ * a min-heap, so an offer costs O(log capacity) instead of a scan for the
+ * minimum.
+ */
+public class HotResources {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    /**
+     * Constructor
+     * @param capacity: number of counters (K) kept by each stripe
+     */
+    public HotResources(int capacity) {
+        this(capacity, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor
+     * @param capacity: number of counters (K) kept by each stripe
+     * @param concurrencyLevel: expected number of concurrently waiting
+     *                          threads, rounded up to a power of two stripes
+     */
+    public HotResources(int capacity, int concurrencyLevel) {
+        int n = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1) << 1);
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) { this.stripes[i] = new Stripe(capacity); }
+        this.stripeMask = n - 1;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    /**
+     * Count one occurrence of the resource.
+     * @param resource: a LockManager resource, e.g. an InternalNode or a key
+     */
+    public void offer(Object resource) {
+        Stripe stripe = stripeOf(resource);
+        synchronized (stripe) {
+            stripe.offer(resource);
+        }
+    }
+
+    /**
+     * @param k: the number of entries to be returned
+     * @return the k hottest resources, hottest first, as
+     * "resource=count (+-error)" strings
+     */
+    public List<String> top(int k) {
+        List<Counter> sorted = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int i = 0; i < stripe.size; i++) {
+                    Counter c = stripe.heap[i];
+                    sorted.add(new Counter(c.resource, c.count, c.error));
+                }
+            }
+        }
+        sorted.sort((o1, o2) -> Long.compare(o2.count, o1.count));
+        List<String> top = new ArrayList<>(Math.min(k, sorted.size()));
+        for (int i = 0; i < k && i < sorted.size(); i++) {
+            Counter c = sorted.get(i);
+            top.add(c.resource + "=" + c.count + " (+-" + c.error + ")");
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    private Stripe stripeOf(Object resource) {
+        int h = resource.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
+
+    /**
+     * The sketch of one stripe: its counters by resource, and the same
+     * counters as a min-heap on count. Guarded by its own monitor.
+     */
+    private static final class Stripe {
+
+        final Map<Object, Counter> counters;
+        final Counter[] heap;
+        int size;
+
+        Stripe(int capacity) {
+            this.counters = new HashMap<>(capacity * 2);
+            this.heap = new Counter[capacity];
+        }
+
+        void offer(Object resource) {
+            Counter counter = counters.get(resource);
+            if (counter != null) {
+                counter.count++;
+                siftDown(counter.position);
+            } else if (size < heap.length) {
+                counter = new Counter(resource, 1, 0);
+                counters.put(resource, counter);
+                heap[size] = counter;
+                counter.position = size++;
+                siftUp(counter.position);
+            } else {
+
+                // Replace the minimum, the newcomer inherits its count as error
+                Counter min = heap[0];
+                counters.remove(min.resource);
+                counter = new Counter(resource, min.count + 1, min.count);
+                counters.put(resource, counter);
+                heap[0] = counter;
+                siftDown(0);
+            }
+        }
+
+        void clear() {
+            counters.clear();
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+        }
+
+        private void siftUp(int position) {
+            Counter counter = heap[position];
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (heap[parent].count <= counter.count) { break; }
+                place(heap[parent], position);
+                position = parent;
+            }
+            place(counter, position);
+        }
+
+        private void siftDown(int position) {
+            Counter counter = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) { break; }
+                if (child + 1 < size && heap[child + 1].count < heap[child].count) { child++; }
+                if (counter.count <= heap[child].count) { break; }
+                place(heap[child], position);
+                position = child;
+            }
+            place(counter, position);
+        }
+
+        private void place(Counter counter, int position) {
+            heap[position] = counter;
+            counter.position = position;
+        }
+    }
+
+    private static final class Counter {
+        final Object resource;
+        long count;
+        final long error;
+        /* Index of the counter in the heap of its stripe */
+        int position;
+
+        Counter(Object resource, long count, long error) {
+            this.resource = resource;
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package lockmanager;
 
-import org.neo4j.kernel.impl.locking.community.RWLock;
-
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author I-Chung, Wang
@@ -14,8 +23,366 @@ import java.util.Map;
 * Substitute LockManagerImpl from
 * org.neo4j.kernel.impl.locking.community;
 * */
+
+/**
+ * Striped lock manager. Resources are hashed onto a fixed number of stripes,
+ * each stripe guarding the ResourceLocks of its resources with its own
+ * monitor. A waiter never parks while holding a stripe: it enqueues a
+ * LockRequest and waits on the request's future, which lets callers either
+ * block (acquire, tryAcquire with a timeout) or continue asynchronously
+ * (acquireAsync, tryAcquireAsync) on a virtual thread or an event loop.
+ */
 public class LockManager {
 
-    private final Map<Object,RWLock> resourceLockMap = new HashMap<>();
+    private static final int DEFAULT_STRIPES = 64;
+
+    /* Fires the timeouts of asynchronous waiters, shared by every instance */
+    private static final ScheduledThreadPoolExecutor TIMEOUTS = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread t = new Thread(r, "lock-manager-timeouts");
+        t.setDaemon(true);
+        return t;
+    });
+    static {
+        TIMEOUTS.setRemoveOnCancelPolicy(true);
+    }
+
+    private final Map<Object, ResourceLock>[] stripes;
+    private final int stripeMask;
+    private final Map<Object, Set<Object>> resourcesByOwner = new ConcurrentHashMap<>();
+    private final LockMonitor monitor;
+    private final boolean monitored;
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    public LockManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor
+     * @param concurrencyLevel: expected number of concurrently locking
+     *                          threads, rounded up to a power of two stripes
+     */
+    public LockManager(int concurrencyLevel) {
+        this(concurrencyLevel, LockMonitor.NONE);
+    }
+
+    /**
+     * Constructor
+     * @param concurrencyLevel: expected number of concurrently locking
+     *                          threads, rounded up to a power of two stripes
+     * @param monitor: receives acquisition and wait callbacks, e.g.
+     *                 LockStatistics
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LockManager(int concurrencyLevel, LockMonitor monitor) {
+        int n = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1) << 1);
+        this.stripes = new Map[n];
+        for (int i = 0; i < n; i++) { this.stripes[i] = new HashMap<>(); }
+        this.stripeMask = n - 1;
+        this.monitor = monitor;
+        this.monitored = monitor != LockMonitor.NONE;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    /**
+     * Acquire the lock without waiting.
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: the resource to be locked
+     * @param mode: the requested LockMode
+     * @return a boolean indicating whether the lock was granted
+     */
+    public boolean tryAcquire(Object owner, Object resource, LockMode mode) {
+        Map<Object, ResourceLock> stripe = stripeOf(resource);
+        synchronized (stripe) {
+            ResourceLock lock = stripe.computeIfAbsent(resource, ResourceLock::new);
+            if (lock.tryGrant(owner, mode)) {
+                granted(owner, resource);
+                if (monitored) { monitor.acquired(resource, mode); }
+                return true;
+            }
+            if (lock.isIdle()) { stripe.remove(resource); }
+            return false;
+        }
+    }
+
+    /**
+     * Acquire the lock, blocking the calling thread until it is granted.
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: the resource to be locked
+     * @param mode: the requested LockMode
+     * @throws InterruptedException if interrupted while waiting, the request
+     * is then withdrawn from the queue
+     */
+    public void acquire(Object owner, Object resource, LockMode mode) throws InterruptedException {
+        LockRequest request = request(owner, resource, mode);
+        if (request == null) { return; }
+        try {
+            request.future.get();
+        } catch (InterruptedException e) {
+            if (!cancel(request)) { release(owner, resource, mode); }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Acquire the lock, blocking the calling thread for at most the given
+     * timeout.
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: the resource to be locked
+     * @param mode: the requested LockMode
+     * @param timeout: the maximum time to wait
+     * @param unit: the unit of the timeout
+     * @return a boolean indicating whether the lock was granted, false means
+     * the request timed out and was removed from the queue
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean tryAcquire(Object owner, Object resource, LockMode mode, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        LockRequest request = request(owner, resource, mode);
+        if (request == null) { return true; }
+        try {
+            return request.future.get(timeout, unit);
+        } catch (TimeoutException e) {
+            return !cancel(request);
+        } catch (InterruptedException e) {
+            if (!cancel(request)) { release(owner, resource, mode); }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Acquire the lock without blocking the calling thread.
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: the resource to be locked
+     * @param mode: the requested LockMode
+     * @return a future completed with true once the lock is granted;
+     * cancelling the future withdraws the request
+     */
+    public CompletableFuture<Boolean> acquireAsync(Object owner, Object resource, LockMode mode) {
+        LockRequest request = request(owner, resource, mode);
+        if (request == null) { return CompletableFuture.completedFuture(true); }
+        request.future.whenComplete((granted, error) -> {
+            if (error != null) { cancel(request); }
+        });
+        return request.future;
+    }
+
+    /**
+     * Acquire the lock without blocking the calling thread, giving up after
+     * the given timeout.
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: the resource to be locked
+     * @param mode: the requested LockMode
+     * @param timeout: the maximum time to wait
+     * @param unit: the unit of the timeout
+     * @return a future completed with true once the lock is granted, or with
+     * false if the request timed out and was removed from the queue
+     */
+    public CompletableFuture<Boolean> tryAcquireAsync(Object owner, Object resource, LockMode mode,
+                                                      long timeout, TimeUnit unit) {
+        LockRequest request = request(owner, resource, mode);
+        if (request == null) { return CompletableFuture.completedFuture(true); }
+        Map<Object, ResourceLock> stripe = stripeOf(resource);
+        synchronized (stripe) {
+            if (request.state == LockRequest.WAITING) {
+                request.timeout = TIMEOUTS.schedule(() -> {
+                    if (cancel(request)) { request.future.complete(false); }
+                }, timeout, unit);
+            }
+        }
+        request.future.whenComplete((granted, error) -> {
+            if (error != null) { cancel(request); }
+        });
+        return request.future;
+    }
+
+    /**
+     * Release one hold of the lock.
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: the locked resource
+     * @param mode: the LockMode that is released
+     */
+    public void release(Object owner, Object resource, LockMode mode) {
+        List<LockRequest> granted = new ArrayList<>();
+        Map<Object, ResourceLock> stripe = stripeOf(resource);
+        synchronized (stripe) {
+            ResourceLock lock = stripe.get(resource);
+            if (lock == null) {
+                throw new IllegalMonitorStateException(owner + " does not hold " + mode + " on " + resource);
+            }
+            if (lock.release(owner, mode)) { released(owner, resource); }
+            grantWaiters(stripe, lock, granted);
+        }
+        complete(granted);
+    }
+
+    /**
+     * Release every lock held by the owner, typically at commit or rollback.
+     * @param owner: the owner (transaction) of the locks
+     */
+    public void releaseAll(Object owner) {
+        Set<Object> resources = resourcesByOwner.remove(owner);
+        if (resources == null) { return; }
+        List<LockRequest> granted = new ArrayList<>();
+        for (Object resource : resources) {
+            Map<Object, ResourceLock> stripe = stripeOf(resource);
+            synchronized (stripe) {
+                ResourceLock lock = stripe.get(resource);
+                if (lock == null) { continue; }
+                lock.releaseAll(owner);
+                grantWaiters(stripe, lock, granted);
+            }
+        }
+        complete(granted);
+    }
+
+    /**
+     * @param owner: the owner (transaction) of the lock
+     * @param resource: a resource
+     * @param mode: a LockMode
+     * @return a boolean indicating whether the owner holds the resource in
+     * the given mode
+     */
+    public boolean isHeldBy(Object owner, Object resource, LockMode mode) {
+        Map<Object, ResourceLock> stripe = stripeOf(resource);
+        synchronized (stripe) {
+            ResourceLock lock = stripe.get(resource);
+            return lock != null && lock.isHeldBy(owner, mode);
+        }
+    }
+
+    /**
+     * @param owner: the owner (transaction) of the locks
+     * @return the resources the owner holds in at least one mode
+     */
+    public Set<Object> heldResources(Object owner) {
+        Set<Object> resources = resourcesByOwner.get(owner);
+        return resources == null ? Collections.emptySet() : Collections.unmodifiableSet(resources);
+    }
+
+    /**
+     * The edges of a wait-for graph: whom a waiting owner waits for.
+     * @param owner: an owner waiting for the resource
+     * @param resource: the resource it waits for
+     * @param mode: the LockMode it waits for
+     * @return the owners holding a conflicting lock on the resource or
+     * queued ahead of the owner, empty if the owner is not blocked
+     */
+    public Set<Object> blockers(Object owner, Object resource, LockMode mode) {
+        Set<Object> blockers = new HashSet<>();
+        Map<Object, ResourceLock> stripe = stripeOf(resource);
+        synchronized (stripe) {
+            ResourceLock lock = stripe.get(resource);
+            if (lock != null) { lock.blockers(owner, mode, blockers); }
+        }
+        return blockers;
+    }
+
+    /**
+     * Grant the lock right away if possible, otherwise enqueue a waiter.
+     * @return null if the lock was granted, else the enqueued LockRequest
+     */
+    private LockRequest request(Object owner, Object resource, LockMode mode) {
+        Map<Object, ResourceLock> stripe = stripeOf(resource);
+        synchronized (stripe) {
+            ResourceLock lock = stripe.computeIfAbsent(resource, ResourceLock::new);
+            if (lock.tryGrant(owner, mode)) {
+                granted(owner, resource);
+                if (monitored) { monitor.acquired(resource, mode); }
+                return null;
+            }
+            LockRequest request = new LockRequest(owner, mode, lock);
+            if (monitored) { request.waitStart = System.nanoTime(); }
+            lock.enqueue(request);
+            return request;
+        }
+    }
+
+    /**
+     * Withdraw a waiting request from its queue in O(1).
+     * @param request: the LockRequest to be withdrawn
+     * @return a boolean indicating whether the request was still waiting,
+     * false means it had been granted in the meantime
+     */
+    private boolean cancel(LockRequest request) {
+        List<LockRequest> granted = new ArrayList<>();
+        Map<Object, ResourceLock> stripe = stripeOf(request.lock.resource);
+        synchronized (stripe) {
+            if (request.state != LockRequest.WAITING) { return request.state == LockRequest.CANCELLED; }
+            request.state = LockRequest.CANCELLED;
+            request.lock.unlink(request);
+
+            // The withdrawn waiter may have been the one blocking those behind it
+            grantWaiters(stripe, request.lock, granted);
+        }
+        if (request.timeout != null) { request.timeout.cancel(false); }
+        if (monitored) {
+            monitor.waited(request.lock.resource, request.mode, System.nanoTime() - request.waitStart, false);
+        }
+        complete(granted);
+        return true;
+    }
+
+    /* Must be called holding the stripe monitor */
+    private void grantWaiters(Map<Object, ResourceLock> stripe, ResourceLock lock, List<LockRequest> granted) {
+        int from = granted.size();
+        lock.grantWaiters(granted);
+        for (int i = from; i < granted.size(); i++) {
+            granted(granted.get(i).owner, lock.resource);
+        }
+        if (lock.isIdle()) { stripe.remove(lock.resource); }
+    }
+
+    /* Complete futures outside the stripe monitor, callbacks may run inline */
+    private void complete(List<LockRequest> granted) {
+        for (LockRequest request : granted) {
+            if (request.timeout != null) { request.timeout.cancel(false); }
+            if (monitored) {
+                monitor.waited(request.lock.resource, request.mode, System.nanoTime() - request.waitStart, true);
+            }
+            if (!request.future.complete(true)) {
+
+                /* The caller cancelled the future concurrently with the grant,
+                   hand the lock back */
+                release(request.owner, request.lock.resource, request.mode);
+            }
+        }
+    }
+
+    private void granted(Object owner, Object resource) {
+        resourcesByOwner.compute(owner, (o, resources) -> {
+            if (resources == null) { resources = ConcurrentHashMap.newKeySet(); }
+            resources.add(resource);
+            return resources;
+        });
+    }
+
+    private void released(Object owner, Object resource) {
+        resourcesByOwner.computeIfPresent(owner, (o, resources) -> {
+            resources.remove(resource);
+            return resources.isEmpty() ? null : resources;
+        });
+    }
 
+    private Map<Object, ResourceLock> stripeOf(Object resource) {
+        int h = resource.hashCode();
+        return stripes[(h ^ (h >>> 16)) & stripeMask];
+    }
 }
@@ -0,0 +1,44 @@
+package lockmanager;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 上午 10:12
+ */
+
+/**
+ * Lock modes supported by the LockManager. The intention modes are taken on
+ * the ancestors (InternalNode) of the resource that is actually read or
+ * written, so that hierarchical locking of the tree only conflicts where it
+ * has to.
+ */
+public enum LockMode {
+
+    INTENTION_SHARED,
+    INTENTION_EXCLUSIVE,
+    SHARED,
+    EXCLUSIVE;
+
+    /*
+     *        IS   IX   S    X
+     *   IS   o    o    o    x
+     *   IX   o    o    x    x
+     *   S    o    x    o    x
+     *   X    x    x    x    x
+     * */
+    private static final boolean[][] COMPATIBILITY = {
+            { true,  true,  true,  false },
+            { true,  true,  false, false },
+            { true,  false, true,  false },
+            { false, false, false, false }
+    };
+
+    /**
+     * This method determines if a lock in this mode can be held at the same
+     * time as a lock in the other mode by a different owner.
+     * @param other: the mode held (or requested) by another owner
+     * @return a boolean indicating whether both modes can be granted together
+     */
+    public boolean isCompatibleWith(LockMode other) {
+        return COMPATIBILITY[ordinal()][other.ordinal()];
+    }
+}
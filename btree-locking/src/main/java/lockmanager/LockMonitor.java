@@ -0,0 +1,39 @@
+package lockmanager;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 01:05
+ */
+
+/**
+ * Callbacks from the LockManager for instrumentation. The LockManager skips
+ * every call (and the clock reads that feed them) when constructed with
+ * NONE, so an unmonitored lock manager pays a single final-field check.
+ */
+public interface LockMonitor {
+
+    LockMonitor NONE = new LockMonitor() {
+        @Override
+        public void acquired(Object resource, LockMode mode) { }
+
+        @Override
+        public void waited(Object resource, LockMode mode, long waitNanos, boolean granted) { }
+    };
+
+    /**
+     * Called when a lock is granted without waiting.
+     * @param resource: the locked resource
+     * @param mode: the granted LockMode
+     */
+    void acquired(Object resource, LockMode mode);
+
+    /**
+     * Called when a request that had to wait leaves the queue.
+     * @param resource: the requested resource
+     * @param mode: the requested LockMode
+     * @param waitNanos: time spent in the queue
+     * @param granted: true if the lock was granted, false if the request
+     *                 timed out or was cancelled
+     */
+    void waited(Object resource, LockMode mode, long waitNanos, boolean granted);
+}
@@ -0,0 +1,41 @@
+package lockmanager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 上午 10:20
+ */
+
+/**
+ * A waiter in the queue of a ResourceLock. Requests form an intrusive doubly
+ * linked list, so a waiter that times out or is interrupted can be unlinked
+ * in O(1) without scanning the queue.
+ */
+final class LockRequest {
+
+    static final int WAITING = 0;
+    static final int GRANTED = 1;
+    static final int CANCELLED = 2;
+
+    final Object owner;
+    final LockMode mode;
+    final ResourceLock lock;
+    final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+    /* Guarded by the stripe that owns the ResourceLock */
+    int state = WAITING;
+    LockRequest prev;
+    LockRequest next;
+    Future<?> timeout;
+
+    /* Only set when the LockManager is monitored */
+    long waitStart;
+
+    LockRequest(Object owner, LockMode mode, ResourceLock lock) {
+        this.owner = owner;
+        this.mode = mode;
+        this.lock = lock;
+    }
+}
@@ -0,0 +1,185 @@
+package lockmanager;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 01:46
+ */
+
+/**
+ * LockMonitor that collects per LockMode acquisition, wait and timeout
+ * counts, wait time histograms and a top-K sketch of the most contended
+ * resources. Every wait is also committed as a LockWaitEvent to JFR.
+ * Only the waits touch the histograms and the sketch, the uncontended path
+ * is a single LongAdder increment.
+ * <pre>
+ *     LockStatistics stats = new LockStatistics();
+ *     stats.register("lockmanager:type=LockStatistics");
+ *     LockManager lockManager = new LockManager(64, stats);
+ * </pre>
+ */
+public class LockStatistics implements LockMonitor, LockStatisticsMXBean {
+
+    private static final LockMode[] MODES = LockMode.values();
+    private static final int DEFAULT_HOT_RESOURCES = 32;
+
+    private final LongAdder[] acquisitions = new LongAdder[MODES.length];
+    private final LongAdder[] waits = new LongAdder[MODES.length];
+    private final LongAdder[] timeouts = new LongAdder[MODES.length];
+    private final Histogram[] waitTimes = new Histogram[MODES.length];
+    private final HotResources hotResources;
+    private final int hotResourceCount;
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    public LockStatistics() {
+        this(DEFAULT_HOT_RESOURCES);
+    }
+
+    /**
+     * Constructor
+     * @param hotResources: number of contended resources tracked by the
+     *                      top-K sketch
+     */
+    public LockStatistics(int hotResources) {
+        for (LockMode mode : MODES) {
+            acquisitions[mode.ordinal()] = new LongAdder();
+            waits[mode.ordinal()] = new LongAdder();
+            timeouts[mode.ordinal()] = new LongAdder();
+            waitTimes[mode.ordinal()] = new ConcurrentHistogram(3);
+        }
+        this.hotResources = new HotResources(hotResources);
+        this.hotResourceCount = hotResources;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    /**
+     * Register this instance with the platform MBean server.
+     * @param name: the JMX ObjectName, e.g. "lockmanager:type=LockStatistics"
+     * @throws JMException if the name is malformed or already registered
+     */
+    public void register(String name) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+    }
+
+    @Override
+    public void acquired(Object resource, LockMode mode) {
+        acquisitions[mode.ordinal()].increment();
+    }
+
+    @Override
+    public void waited(Object resource, LockMode mode, long waitNanos, boolean granted) {
+        int i = mode.ordinal();
+        if (granted) {
+            acquisitions[i].increment();
+        } else {
+            timeouts[i].increment();
+        }
+        waits[i].increment();
+        waitTimes[i].recordValue(waitNanos);
+        hotResources.offer(resource);
+
+        LockWaitEvent event = new LockWaitEvent();
+        if (event.shouldCommit()) {
+            event.resource = String.valueOf(resource);
+            event.mode = mode.name();
+            event.waitTime = waitNanos;
+            event.granted = granted;
+            event.commit();
+        }
+    }
+
+    /**
+     * @param mode: a LockMode
+     * @return a copy of the wait time histogram (in nanoseconds) of the mode
+     */
+    public Histogram waitTimeHistogram(LockMode mode) {
+        return waitTimes[mode.ordinal()].copy();
+    }
+
+    @Override
+    public Map<String, Long> getAcquisitions() {
+        return sums(acquisitions);
+    }
+
+    @Override
+    public Map<String, Long> getWaits() {
+        return sums(waits);
+    }
+
+    @Override
+    public Map<String, Long> getTimeouts() {
+        return sums(timeouts);
+    }
+
+    @Override
+    public Map<String, Long> getMeanWaitMicros() {
+        Map<String, Long> means = new TreeMap<>();
+        for (LockMode mode : MODES) {
+            means.put(mode.name(), TimeUnit.NANOSECONDS.toMicros((long) waitTimes[mode.ordinal()].getMean()));
+        }
+        return means;
+    }
+
+    @Override
+    public Map<String, Long> getMaxWaitMicros() {
+        Map<String, Long> max = new TreeMap<>();
+        for (LockMode mode : MODES) {
+            max.put(mode.name(), TimeUnit.NANOSECONDS.toMicros(waitTimes[mode.ordinal()].getMaxValue()));
+        }
+        return max;
+    }
+
+    @Override
+    public List<String> getHotResources() {
+        return hotResources.top(hotResourceCount);
+    }
+
+    @Override
+    public long waitTimePercentileMicros(String mode, double percentile) {
+        Histogram histogram = waitTimes[LockMode.valueOf(mode).ordinal()];
+        return TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(percentile));
+    }
+
+    @Override
+    public void reset() {
+        for (LockMode mode : MODES) {
+            acquisitions[mode.ordinal()].reset();
+            waits[mode.ordinal()].reset();
+            timeouts[mode.ordinal()].reset();
+            waitTimes[mode.ordinal()].reset();
+        }
+        hotResources.clear();
+    }
+
+    private static Map<String, Long> sums(LongAdder[] adders) {
+        Map<String, Long> sums = new TreeMap<>();
+        for (LockMode mode : MODES) {
+            sums.put(mode.name(), adders[mode.ordinal()].sum());
+        }
+        return sums;
+    }
+}
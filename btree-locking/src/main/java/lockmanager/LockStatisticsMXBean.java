@@ -0,0 +1,36 @@
+package lockmanager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 01:40
+ */
+
+/**
+ * JMX view of LockStatistics. Maps are keyed by LockMode name.
+ */
+public interface LockStatisticsMXBean {
+
+    Map<String, Long> getAcquisitions();
+
+    Map<String, Long> getWaits();
+
+    Map<String, Long> getTimeouts();
+
+    Map<String, Long> getMeanWaitMicros();
+
+    Map<String, Long> getMaxWaitMicros();
+
+    List<String> getHotResources();
+
+    /**
+     * @param mode: a LockMode name
+     * @param percentile: a percentile in [0, 100], e.g. 99.9
+     * @return the wait time at the given percentile in microseconds
+     */
+    long waitTimePercentileMicros(String mode, double percentile);
+
+    void reset();
+}
@@ -0,0 +1,39 @@
+package lockmanager;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 01:31
+ */
+
+/**
+ * JFR event committed by LockStatistics whenever a lock request had to wait.
+ * Recording it costs nothing unless a recording enables "lockmanager.LockWait".
+ */
+@Name("lockmanager.LockWait")
+@Label("Lock Wait")
+@Category({"Graph Database", "Lock Manager"})
+@Description("A LockManager request that waited in the queue of a resource")
+@StackTrace(false)
+class LockWaitEvent extends Event {
+
+    @Label("Resource")
+    String resource;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+
+    @Label("Granted")
+    boolean granted;
+}
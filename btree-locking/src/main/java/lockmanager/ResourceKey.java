@@ -0,0 +1,40 @@
+package lockmanager;
+
+import org.neo4j.lock.ResourceType;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 03:10
+ */
+
+/**
+ * A Neo4j lock resource, (ResourceType, id), as a LockManager resource.
+ */
+final class ResourceKey {
+
+    final ResourceType type;
+    final long id;
+
+    ResourceKey(ResourceType type, long id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) { return true; }
+        if (!(o instanceof ResourceKey)) { return false; }
+        ResourceKey that = (ResourceKey) o;
+        return id == that.id && type.typeId() == that.type.typeId();
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * type.typeId() + Long.hashCode(id * 0x9E3779B97F4A7C15L);
+    }
+
+    @Override
+    public String toString() {
+        return type.name() + "(" + id + ")";
+    }
+}
@@ -0,0 +1,193 @@
+package lockmanager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 上午 10:31
+ */
+
+/**
+ * The lock state of a single resource: the owners currently holding it (with
+ * a hold count per LockMode) and a FIFO queue of waiting LockRequests.
+ * ResourceLock is not thread safe by itself, every method must be called
+ * while holding the monitor of the stripe the resource belongs to.
+ */
+final class ResourceLock {
+
+    private static final LockMode[] MODES = LockMode.values();
+
+    final Object resource;
+
+    private final Map<Object, int[]> holders = new HashMap<>(4);
+    private LockRequest head;
+    private LockRequest tail;
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    ResourceLock(Object resource) {
+        this.resource = resource;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    /**
+     * This method grants the lock right away if it does not conflict with
+     * the other holders. A new owner also has to respect the FIFO order of the
+     * queue, while an owner that already holds the resource may re-enter or
+     * upgrade without queueing (it would otherwise wait on itself).
+     * @param owner: the owner (transaction) asking for the lock
+     * @param mode: the requested LockMode
+     * @return a boolean indicating whether the lock was granted
+     */
+    boolean tryGrant(Object owner, LockMode mode) {
+        if (head != null && !holders.containsKey(owner)) { return false; }
+        if (!isCompatible(owner, mode)) { return false; }
+        hold(owner, mode);
+        return true;
+    }
+
+    /**
+     * Append a waiter to the tail of the queue.
+     * @param request: the LockRequest to be enqueued
+     */
+    void enqueue(LockRequest request) {
+        request.prev = tail;
+        if (tail == null) {
+            head = request;
+        } else {
+            tail.next = request;
+        }
+        tail = request;
+    }
+
+    /**
+     * Remove a waiter from the queue in O(1).
+     * @param request: a LockRequest that is currently enqueued
+     */
+    void unlink(LockRequest request) {
+        if (request.prev == null) { head = request.next; } else { request.prev.next = request.next; }
+        if (request.next == null) { tail = request.prev; } else { request.next.prev = request.prev; }
+        request.prev = null;
+        request.next = null;
+    }
+
+    /**
+     * Release one hold of the owner in the given mode.
+     * @param owner: the owner releasing the lock
+     * @param mode: the LockMode that is released
+     * @return a boolean indicating whether the owner no longer holds the
+     * resource in any mode
+     */
+    boolean release(Object owner, LockMode mode) {
+        int[] counts = holders.get(owner);
+        if (counts == null || counts[mode.ordinal()] == 0) {
+            throw new IllegalMonitorStateException(owner + " does not hold " + mode + " on " + resource);
+        }
+        counts[mode.ordinal()]--;
+        for (int count : counts) {
+            if (count != 0) { return false; }
+        }
+        holders.remove(owner);
+        return true;
+    }
+
+    /**
+     * Drop every hold of the owner regardless of mode and count.
+     * @param owner: the owner releasing the lock
+     */
+    void releaseAll(Object owner) {
+        holders.remove(owner);
+    }
+
+    /**
+     * Walk the queue from its head and grant every waiter that became
+     * compatible. The walk stops at the first waiter that still conflicts so
+     * that writers are not starved by a stream of readers.
+     * @param granted: collects the requests to be completed once the stripe
+     *                 monitor is released
+     */
+    void grantWaiters(List<LockRequest> granted) {
+        LockRequest request = head;
+        while (request != null && isCompatible(request.owner, request.mode)) {
+            LockRequest next = request.next;
+            unlink(request);
+            hold(request.owner, request.mode);
+            request.state = LockRequest.GRANTED;
+            granted.add(request);
+            request = next;
+        }
+    }
+
+    /**
+     * @param owner: an owner
+     * @param mode: a LockMode
+     * @return a boolean indicating whether the owner holds the resource in
+     * the given mode
+     */
+    boolean isHeldBy(Object owner, LockMode mode) {
+        int[] counts = holders.get(owner);
+        return counts != null && counts[mode.ordinal()] > 0;
+    }
+
+    /**
+     * Collect the owners a request of the given owner waits for: the other
+     * holders whose locks conflict with the requested LockMode, and the
+     * owners queued ahead of it, which are granted first.
+     * @param owner: an owner waiting for the resource
+     * @param mode: the LockMode it waits for
+     * @param blockers: receives the owners
+     */
+    void blockers(Object owner, LockMode mode, Set<Object> blockers) {
+        for (Map.Entry<Object, int[]> holder : holders.entrySet()) {
+            if (holder.getKey().equals(owner)) { continue; }
+            int[] counts = holder.getValue();
+            for (LockMode held : MODES) {
+                if (counts[held.ordinal()] > 0 && !mode.isCompatibleWith(held)) {
+                    blockers.add(holder.getKey());
+                    break;
+                }
+            }
+        }
+        for (LockRequest request = head; request != null && !request.owner.equals(owner); request = request.next) {
+            blockers.add(request.owner);
+        }
+    }
+
+    /**
+     * @return a boolean indicating whether nobody holds or waits for the
+     * resource, in which case the ResourceLock can be dropped
+     */
+    boolean isIdle() {
+        return holders.isEmpty() && head == null;
+    }
+
+    private boolean isCompatible(Object owner, LockMode mode) {
+        for (Map.Entry<Object, int[]> holder : holders.entrySet()) {
+            if (holder.getKey().equals(owner)) { continue; }
+            int[] counts = holder.getValue();
+            for (LockMode held : MODES) {
+                if (counts[held.ordinal()] > 0 && !mode.isCompatibleWith(held)) { return false; }
+            }
+        }
+        return true;
+    }
+
+    private void hold(Object owner, LockMode mode) {
+        holders.computeIfAbsent(owner, o -> new int[MODES.length])[mode.ordinal()]++;
+    }
+}
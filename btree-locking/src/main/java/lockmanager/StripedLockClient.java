@@ -0,0 +1,225 @@
+package lockmanager;
+
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.api.LeaseClient;
+import org.neo4j.kernel.impl.locking.ActiveLock;
+import org.neo4j.kernel.impl.locking.LockAcquisitionTimeoutException;
+import org.neo4j.kernel.impl.locking.LockClientStoppedException;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.LockWaitEvent;
+import org.neo4j.lock.ResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 03:41
+ */
+
+/**
+ * Lock client of one transaction. The client itself is the owner of its
+ * locks in the LockManager, so releaseAll on close drops everything the
+ * transaction took. A client waits through the asynchronous LockManager API
+ * so that stop(), called from another thread when the transaction is
+ * terminated, can withdraw the pending request. Before it blocks, a client
+ * checks that the wait does not close a cycle in the wait-for graph.
+ */
+class StripedLockClient implements Locks.Client {
+
+    private final StripedLocks locks;
+    private final LockManager lockManager;
+    private final int lockSessionId;
+
+    private LeaseClient leaseClient;
+    private volatile boolean stopped;
+    private volatile CompletableFuture<Boolean> waiting;
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    StripedLockClient(StripedLocks locks, int lockSessionId) {
+        this.locks = locks;
+        this.lockManager = locks.getLockManager();
+        this.lockSessionId = lockSessionId;
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    @Override
+    public void initialize(LeaseClient leaseClient) {
+        this.leaseClient = leaseClient;
+    }
+
+    @Override
+    public void acquireShared(LockTracer tracer, ResourceType resourceType, long... resourceIds) {
+        acquire(tracer, resourceType, LockMode.SHARED, resourceIds);
+    }
+
+    @Override
+    public void acquireExclusive(LockTracer tracer, ResourceType resourceType, long... resourceIds) {
+        acquire(tracer, resourceType, LockMode.EXCLUSIVE, resourceIds);
+    }
+
+    @Override
+    public boolean tryExclusiveLock(ResourceType resourceType, long resourceId) {
+        assertNotStopped();
+        return lockManager.tryAcquire(this, new ResourceKey(resourceType, resourceId), LockMode.EXCLUSIVE);
+    }
+
+    @Override
+    public boolean trySharedLock(ResourceType resourceType, long resourceId) {
+        assertNotStopped();
+        return lockManager.tryAcquire(this, new ResourceKey(resourceType, resourceId), LockMode.SHARED);
+    }
+
+    @Override
+    public boolean reEnterShared(ResourceType resourceType, long resourceId) {
+        return reEnter(new ResourceKey(resourceType, resourceId), LockMode.SHARED);
+    }
+
+    @Override
+    public boolean reEnterExclusive(ResourceType resourceType, long resourceId) {
+        return reEnter(new ResourceKey(resourceType, resourceId), LockMode.EXCLUSIVE);
+    }
+
+    @Override
+    public void releaseShared(ResourceType resourceType, long... resourceIds) {
+        for (long resourceId : resourceIds) {
+            lockManager.release(this, new ResourceKey(resourceType, resourceId), LockMode.SHARED);
+        }
+    }
+
+    @Override
+    public void releaseExclusive(ResourceType resourceType, long... resourceIds) {
+        for (long resourceId : resourceIds) {
+            lockManager.release(this, new ResourceKey(resourceType, resourceId), LockMode.EXCLUSIVE);
+        }
+    }
+
+    @Override
+    public void prepare() {
+        assertNotStopped();
+    }
+
+    @Override
+    public void stop() {
+        stopped = true;
+        CompletableFuture<Boolean> pending = waiting;
+        if (pending != null) { pending.cancel(false); }
+    }
+
+    @Override
+    public void close() {
+        stop();
+        lockManager.releaseAll(this);
+        locks.closed(this);
+    }
+
+    @Override
+    public int getLockSessionId() {
+        return lockSessionId;
+    }
+
+    @Override
+    public Stream<ActiveLock> activeLocks() {
+        List<ActiveLock> active = new ArrayList<>();
+        for (Object resource : lockManager.heldResources(this)) {
+            ResourceKey key = (ResourceKey) resource;
+            if (lockManager.isHeldBy(this, key, LockMode.EXCLUSIVE)) {
+                active.add(ActiveLock.exclusiveLock(key.type, key.id));
+            }
+            if (lockManager.isHeldBy(this, key, LockMode.SHARED)) {
+                active.add(ActiveLock.sharedLock(key.type, key.id));
+            }
+        }
+        return active.stream();
+    }
+
+    @Override
+    public long activeLockCount() {
+        return activeLocks().count();
+    }
+
+    @Override
+    public String toString() {
+        return "StripedLockClient[" + lockSessionId + "]";
+    }
+
+    private void acquire(LockTracer tracer, ResourceType resourceType, LockMode mode, long... resourceIds) {
+        for (long resourceId : resourceIds) {
+            assertNotStopped();
+            ResourceKey key = new ResourceKey(resourceType, resourceId);
+            if (lockManager.tryAcquire(this, key, mode)) { continue; }
+            LockWaitEvent event = tracer.waitForLock(mode == LockMode.EXCLUSIVE, resourceType, resourceId);
+            try {
+                await(key, mode);
+            } finally {
+                event.close();
+            }
+        }
+    }
+
+    private void await(ResourceKey key, LockMode mode) {
+        long timeout = locks.lockAcquisitionTimeoutMillis();
+        CompletableFuture<Boolean> future = timeout > 0 ?
+                lockManager.tryAcquireAsync(this, key, mode, timeout, TimeUnit.MILLISECONDS) :
+                lockManager.acquireAsync(this, key, mode);
+        waiting = future;
+
+        // stop() may have run before the future was published
+        if (stopped) { future.cancel(false); }
+
+        locks.startWaiting(this, key, mode);
+        try {
+            StripedLockClient cycle = future.isDone() ? null : locks.findDeadlock(this);
+            if (cycle != null) {
+
+                /* Withdraw the request, a grant racing with this is handed back */
+                future.cancel(false);
+                throw new DeadlockDetectedException(this + " can't acquire " + mode + " on " + key +
+                        " without a deadlock, the holders of that lock wait through " + cycle +
+                        " for locks held by " + this + ".");
+            }
+            if (!future.get()) {
+                throw new LockAcquisitionTimeoutException(key.type, key.id, timeout);
+            }
+        } catch (CancellationException e) {
+            throw new LockClientStoppedException(this);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new LockClientStoppedException(this);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            waiting = null;
+            locks.stopWaiting(this);
+        }
+    }
+
+    private boolean reEnter(ResourceKey key, LockMode mode) {
+        assertNotStopped();
+        return lockManager.isHeldBy(this, key, mode) && lockManager.tryAcquire(this, key, mode);
+    }
+
+    private void assertNotStopped() {
+        if (stopped) { throw new LockClientStoppedException(this); }
+    }
+}
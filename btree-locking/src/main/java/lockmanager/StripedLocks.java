@@ -0,0 +1,189 @@
+package lockmanager;
+
+import org.neo4j.configuration.Config;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.locking.Locks;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 03:30
+ */
+
+/**
+ * Neo4j Locks service backed by the striped, hierarchical LockManager. Every
+ * transaction gets a StripedLockClient which is the owner of its locks.
+ * Clients that wait register what they wait for, and a client that starts
+ * waiting searches the wait-for graph for a cycle back to itself, as the
+ * community lock manager does, so that a deadlock fails one transaction
+ * with a DeadlockDetectedException instead of hanging both.
+ */
+public class StripedLocks implements Locks {
+
+    /* Each database (system and user ones) has its own Locks */
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private final LockManager lockManager;
+    private final long lockAcquisitionTimeoutMillis;
+    private final Set<StripedLockClient> clients = ConcurrentHashMap.newKeySet();
+    private final Map<StripedLockClient, WaitingFor> waiting = new ConcurrentHashMap<>();
+    private final AtomicInteger lockSessionIds = new AtomicInteger();
+    private final String statisticsName;
+    private volatile boolean closed;
+
+
+    /*
+     * ***********
+     * Constructor
+     * ***********
+     * */
+
+    /**
+     * Constructor
+     * @param config: database configuration, read for the lock acquisition
+     *                timeout and the StripedLocksSettings
+     */
+    public StripedLocks(Config config) {
+        LockMonitor monitor = LockMonitor.NONE;
+        if (config.get(StripedLocksSettings.statistics_enabled)) {
+            LockStatistics statistics = new LockStatistics();
+            this.statisticsName = "lockmanager:type=LockStatistics,instance=" + INSTANCES.incrementAndGet();
+            try {
+                statistics.register(statisticsName);
+            } catch (JMException e) {
+                throw new IllegalStateException("Unable to register LockStatistics", e);
+            }
+            monitor = statistics;
+        } else {
+            this.statisticsName = null;
+        }
+        this.lockManager = new LockManager(config.get(StripedLocksSettings.stripes), monitor);
+        this.lockAcquisitionTimeoutMillis = config.get(GraphDatabaseSettings.lock_acquisition_timeout).toMillis();
+    }
+
+
+
+    /*
+     * *********
+     * FUNCTIONS
+     * *********
+     * */
+
+    @Override
+    public Client newClient() {
+        if (closed) { throw new IllegalStateException(this + " already closed"); }
+        StripedLockClient client = new StripedLockClient(this, lockSessionIds.incrementAndGet());
+        clients.add(client);
+        return client;
+    }
+
+    @Override
+    public void accept(Visitor visitor) {
+        for (StripedLockClient client : clients) {
+            client.activeLocks().forEach(lock -> visitor.visit(lock.resourceType(), lock.resourceId(),
+                    lock.mode() + " held by " + client, 0, System.identityHashCode(client)));
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (StripedLockClient client : clients) {
+            client.stop();
+        }
+        if (statisticsName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(statisticsName));
+            } catch (JMException ignored) {
+                // Already unregistered
+            }
+        }
+    }
+
+    /**
+     * @return the LockManager shared by every client
+     */
+    public LockManager getLockManager() {
+        return lockManager;
+    }
+
+    long lockAcquisitionTimeoutMillis() {
+        return lockAcquisitionTimeoutMillis;
+    }
+
+    void closed(StripedLockClient client) {
+        clients.remove(client);
+        waiting.remove(client);
+    }
+
+    /**
+     * Register a client as waiting, before it looks for a deadlock: of two
+     * clients that close a cycle at the same time, the later one to register
+     * sees the other's edge.
+     * @param client: a client whose request is queued
+     * @param key: the resource it waits for
+     * @param mode: the LockMode it waits for
+     */
+    void startWaiting(StripedLockClient client, ResourceKey key, LockMode mode) {
+        waiting.put(client, new WaitingFor(key, mode));
+    }
+
+    void stopWaiting(StripedLockClient client) {
+        waiting.remove(client);
+    }
+
+    /**
+     * @param client: a client of this Locks
+     * @return whether the client is registered as waiting, i.e. takes part
+     * in deadlock detection
+     */
+    boolean isWaiting(StripedLockClient client) {
+        return waiting.containsKey(client);
+    }
+
+    /**
+     * Depth-first search of the wait-for graph from a waiting client.
+     * @param client: a client registered with startWaiting
+     * @return the client it waits for, directly or through others, that
+     * waits for it in turn, or null if there is no cycle through it
+     */
+    StripedLockClient findDeadlock(StripedLockClient client) {
+        Set<Object> visited = new HashSet<>();
+        Deque<StripedLockClient> pending = new ArrayDeque<>();
+        pending.push(client);
+        visited.add(client);
+        while (!pending.isEmpty()) {
+            StripedLockClient waiter = pending.pop();
+            WaitingFor waitingFor = waiting.get(waiter);
+            if (waitingFor == null) { continue; }
+            for (Object blocker : lockManager.blockers(waiter, waitingFor.key, waitingFor.mode)) {
+                if (blocker == client) { return waiter; }
+                if (blocker instanceof StripedLockClient && visited.add(blocker)) {
+                    pending.push((StripedLockClient) blocker);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static final class WaitingFor {
+
+        final ResourceKey key;
+        final LockMode mode;
+
+        WaitingFor(ResourceKey key, LockMode mode) {
+            this.key = key;
+            this.mode = mode;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package lockmanager;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.LocksFactory;
+import org.neo4j.lock.ResourceType;
+
+import java.time.Clock;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 03:22
+ */
+
+/**
+ * Makes StripedLocks available to the kernel. The kernel picks the factory
+ * named by unsupported.dbms.lock_manager, or the one with the lowest priority
+ * when the setting is empty; the priority is above the community lock
+ * manager's so the default is left untouched.
+ * <pre>
+ *     Neo4j neo4j = Neo4jBuilders.newInProcessBuilder()
+ *             .withConfig(GraphDatabaseInternalSettings.lock_manager, StripedLocksFactory.NAME)
+ *             .build();
+ * </pre>
+ */
+@ServiceProvider
+public class StripedLocksFactory implements LocksFactory {
+
+    public static final String NAME = "striped";
+
+    @Override
+    public Locks newInstance(Config config, Clock clock, ResourceType[] resourceTypes) {
+        return new StripedLocks(config);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int getPriority() {
+        return 100;
+    }
+}
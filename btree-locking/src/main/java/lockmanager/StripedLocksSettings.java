@@ -0,0 +1,31 @@
+package lockmanager;
+
+import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.configuration.Description;
+import org.neo4j.configuration.SettingsDeclaration;
+import org.neo4j.graphdb.config.Setting;
+
+import static org.neo4j.configuration.SettingImpl.newBuilder;
+import static org.neo4j.configuration.SettingValueParsers.BOOL;
+import static org.neo4j.configuration.SettingValueParsers.INT;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/19 下午 03:18
+ */
+
+/**
+ * Settings of the "striped" lock manager. It is enabled with
+ * unsupported.dbms.lock_manager=striped.
+ */
+@ServiceProvider
+public class StripedLocksSettings implements SettingsDeclaration {
+
+    @Description("Number of stripes of the striped lock manager, rounded up to a power of two.")
+    public static final Setting<Integer> stripes =
+            newBuilder("unsupported.dbms.lock_manager.striped.stripes", INT, 64).build();
+
+    @Description("Collect LockStatistics and register them as the JMX beans lockmanager:type=LockStatistics,instance=*, one per database.")
+    public static final Setting<Boolean> statistics_enabled =
+            newBuilder("unsupported.dbms.lock_manager.striped.statistics_enabled", BOOL, false).build();
+}
@@ -0,0 +1,73 @@
+package replay;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 03:10
+ */
+
+/**
+ * The binary trace format. A header of MAGIC (4 bytes) and VERSION (1 byte),
+ * then one record per operation: an opcode byte followed by
+ * <pre>
+ *     INITIALIZE  m                 varint
+ *     INSERT      key, value        zigzag varint, 8-byte double
+ *     DELETE      key               zigzag varint
+ *     SEARCH      key               zigzag varint
+ *     RANGE       lower, upper      zigzag varint, zigzag varint of upper - lower
+ * </pre>
+ * Multi-byte fixed-width fields are little-endian. A varint is 7 bits per
+ * byte, low bits first, with the high bit set on every byte but the last; a
+ * zigzag varint maps small negative keys to small numbers first. A record
+ * takes at most MAX_RECORD bytes, typically 2 to 4 plus 8 for a value,
+ * against 15 to 30 bytes of text.
+ */
+public final class BinaryTrace {
+
+    /* "GSBT" */
+    public static final int MAGIC = 0x54425347;
+    public static final byte VERSION = 1;
+    public static final int HEADER = 5;
+
+    public static final byte INITIALIZE = 1;
+    public static final byte INSERT = 2;
+    public static final byte DELETE = 3;
+    public static final byte SEARCH = 4;
+    public static final byte RANGE = 5;
+
+    public static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /* Opcode, a varint of at most 5 bytes and a double */
+    public static final int MAX_RECORD = 14;
+
+    private BinaryTrace() {
+    }
+
+    /**
+     * @param buffer: the start of a trace, with at least HEADER bytes remaining
+     * @return true if the buffer starts with the header of this format
+     */
+    public static boolean isBinaryTrace(ByteBuffer buffer) {
+        return buffer.remaining() >= HEADER
+                && buffer.duplicate().order(ORDER).getInt(buffer.position()) == MAGIC
+                && buffer.get(buffer.position() + 4) == VERSION;
+    }
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
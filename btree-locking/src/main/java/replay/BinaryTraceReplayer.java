@@ -0,0 +1,216 @@
+package replay;
+
+import btree.GSBTree;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 03:30
+ */
+
+/**
+ * Replays a BinaryTrace on a GSBTree, decoding the records straight from a
+ * (memory-mapped) ByteBuffer into tree calls, so that a replay measures the
+ * tree rather than the parsing. Search results go to a ResultWriter, or are
+ * only folded into a checksum when there is none.
+ * <pre>
+ *     java -cp btree-locking/target/classes replay.BinaryTraceReplayer trace.bin [output_file.txt]
+ * </pre>
+ */
+public final class BinaryTraceReplayer {
+
+    /* Mapped at most this much of the file at a time */
+    private static final long WINDOW = 1L << 30;
+
+    private final ResultWriter results;
+    private GSBTree<?, ?> tree;
+
+    private long operations;
+    private long searches;
+    private long checksum;
+
+    /**
+     * @param results: where search results go, or null to only checksum them
+     */
+    public BinaryTraceReplayer(ResultWriter results) {
+        this.results = results;
+    }
+
+    /**
+     * Replays a trace file, one mapped window after the other.
+     * @param path: a BinaryTrace file
+     * @return the number of operations replayed
+     */
+    public long replay(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long base = 0;
+            ByteBuffer window = map(channel, base, size);
+            skipHeader(window);
+            while (true) {
+                boolean last = base + window.limit() == size;
+                replayRecords(window, last);
+                if (last) {
+                    return operations;
+                }
+                base += window.position();
+                window = map(channel, base, size);
+            }
+        }
+    }
+
+    /**
+     * Replays a whole trace held in a buffer, from its position to its limit.
+     * @param trace: a BinaryTrace, header included
+     * @return the number of operations replayed
+     */
+    public long replay(ByteBuffer trace) throws IOException {
+        ByteBuffer records = trace.duplicate().order(BinaryTrace.ORDER);
+        skipHeader(records);
+        replayRecords(records, true);
+        return operations;
+    }
+
+    public GSBTree<?, ?> getTree() {
+        return tree;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     * @return a fold of every search result, to compare replays or keep a
+     * benchmark from discarding them
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    private static ByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW, size - offset))
+                .order(BinaryTrace.ORDER);
+    }
+
+    private static void skipHeader(ByteBuffer buffer) {
+        if (!BinaryTrace.isBinaryTrace(buffer)) {
+            throw new IllegalArgumentException("Not a binary trace of version " + BinaryTrace.VERSION + ".");
+        }
+        buffer.position(buffer.position() + BinaryTrace.HEADER);
+    }
+
+    /*
+     * Replays the records of the buffer. Unless it is the last window, stops
+     * when a whole record may no longer fit, so that the caller can map the
+     * next window from there.
+     */
+    private void replayRecords(ByteBuffer buffer, boolean last) throws IOException {
+        int end = last ? buffer.limit() : buffer.limit() - BinaryTrace.MAX_RECORD;
+        while (buffer.position() < end) {
+            byte opcode = buffer.get();
+            switch (opcode) {
+                case BinaryTrace.INITIALIZE:
+                    tree = new GSBTree<>(varint(buffer));
+                    break;
+                case BinaryTrace.INSERT:
+                    tree().insert(BinaryTrace.unzigzag(varint(buffer)), buffer.getDouble());
+                    break;
+                case BinaryTrace.DELETE:
+                    tree().delete(BinaryTrace.unzigzag(varint(buffer)));
+                    break;
+                case BinaryTrace.SEARCH:
+                    found(tree().search(BinaryTrace.unzigzag(varint(buffer))));
+                    break;
+                case BinaryTrace.RANGE:
+                    int lowerBound = BinaryTrace.unzigzag(varint(buffer));
+                    int upperBound = (int) (lowerBound + BinaryTrace.unzigzag(varintLong(buffer)));
+                    found(tree().search(lowerBound, upperBound));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown opcode " + opcode + " at byte " + (buffer.position() - 1) + ".");
+            }
+            operations++;
+        }
+    }
+
+    private void found(Double value) throws IOException {
+        searches++;
+        checksum = checksum * 31 + (value == null ? 0 : Double.doubleToLongBits(value));
+        if (results != null) {
+            results.write(value);
+        }
+    }
+
+    private void found(ArrayList<Double> values) throws IOException {
+        searches++;
+        checksum = checksum * 31 + values.size();
+        for (Double value : values) {
+            checksum = checksum * 31 + Double.doubleToLongBits(value);
+        }
+        if (results != null) {
+            results.write(values);
+        }
+    }
+
+    private GSBTree<?, ?> tree() {
+        if (tree == null) {
+            throw new IllegalArgumentException("The trace has to start with Initialize(m).");
+        }
+        return tree;
+    }
+
+    private static int varint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static long varintLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("usage: java replay.BinaryTraceReplayer <trace_file> [output_file]");
+            System.exit(-1);
+        }
+        long start = System.nanoTime();
+        BinaryTraceReplayer replayer;
+        if (args.length == 2) {
+            try (ResultWriter results = new ResultWriter(new FileOutputStream(args[1], false))) {
+                replayer = new BinaryTraceReplayer(results);
+                replayer.replay(Paths.get(args[0]));
+            }
+        } else {
+            replayer = new BinaryTraceReplayer(null);
+            replayer.replay(Paths.get(args[0]));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("GSBTree: replayed %d operations (%d searches) in %.3f s, %.0f ops/sec, checksum %x%n",
+                replayer.operations, replayer.searches, seconds, replayer.operations / seconds, replayer.checksum);
+    }
+}
@@ -0,0 +1,125 @@
+package replay;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 03:20
+ */
+
+/**
+ * Writes the operations it is handed as a BinaryTrace, through a large
+ * buffer. Hand it to TextTraceParser to convert a Bootstrap input file.
+ */
+public final class BinaryTraceWriter implements TraceWriter {
+
+    private final OutputStream out;
+    private final ByteBuffer buffer;
+    private long operations;
+    private long bytes;
+
+    public BinaryTraceWriter(OutputStream out) throws IOException {
+        this(out, ResultWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param out: where the trace goes, usually an unbuffered FileOutputStream
+     * @param bufferSize: bytes buffered before a write to out
+     */
+    public BinaryTraceWriter(OutputStream out, int bufferSize) throws IOException {
+        this.out = out;
+        this.buffer = ByteBuffer.allocate(Math.max(bufferSize, BinaryTrace.MAX_RECORD)).order(BinaryTrace.ORDER);
+        buffer.putInt(BinaryTrace.MAGIC).put(BinaryTrace.VERSION);
+    }
+
+    @Override
+    public void initialize(int m) throws IOException {
+        record(BinaryTrace.INITIALIZE);
+        putVarint(m);
+    }
+
+    @Override
+    public void insert(int key, double value) throws IOException {
+        record(BinaryTrace.INSERT);
+        putVarint(BinaryTrace.zigzag(key));
+        buffer.putDouble(value);
+    }
+
+    @Override
+    public void delete(int key) throws IOException {
+        record(BinaryTrace.DELETE);
+        putVarint(BinaryTrace.zigzag(key));
+    }
+
+    @Override
+    public void search(int key) throws IOException {
+        record(BinaryTrace.SEARCH);
+        putVarint(BinaryTrace.zigzag(key));
+    }
+
+    @Override
+    public void search(int lowerBound, int upperBound) throws IOException {
+        record(BinaryTrace.RANGE);
+        putVarint(BinaryTrace.zigzag(lowerBound));
+        putVarint(BinaryTrace.zigzag((long) upperBound - lowerBound));
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    /**
+     * @return the bytes written so far, header included
+     */
+    public long getBytes() {
+        return bytes + buffer.position();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    /* Makes room for a whole record and writes its opcode */
+    private void record(byte opcode) throws IOException {
+        if (buffer.remaining() < BinaryTrace.MAX_RECORD) {
+            drain();
+        }
+        buffer.put(opcode);
+        operations++;
+    }
+
+    private void putVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void drain() throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        bytes += buffer.position();
+        buffer.clear();
+    }
+}
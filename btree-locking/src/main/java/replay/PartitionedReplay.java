@@ -0,0 +1,350 @@
+package replay;
+
+import btree.GSBTree;
+import lockmanager.LockManager;
+import lockmanager.LockMode;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 04:20
+ */
+
+/**
+ * Replays a trace on several threads at once against one GSBTree and one
+ * LockManager, and checks the outcome against a sequential replay.
+ *
+ * The operations are split into partitions by key, and every partition is
+ * replayed in trace order by its own thread. All operations on a key are in
+ * the same partition, so every point search, and every range search inside
+ * one partition, has to find exactly what the sequential replay found;
+ * range searches across partitions race with the other threads and are
+ * only counted. Every operation is a transaction: it takes an intention
+ * lock on the tree and a lock on its key (a range search a SHARED lock on
+ * the whole tree), runs, and releases its locks.
+ *
+ * The Bootstrap format has no sessions, so partitions are made of keys:
+ * KEY_RANGE splits the key space into ranges of about as many operations
+ * each, KEY_HASH stripes the keys over the partitions.
+ */
+public class PartitionedReplay {
+
+    public enum Partitioning { KEY_RANGE, KEY_HASH }
+
+    private static final Object TREE = "tree";
+
+    /* Keys sampled to place the KEY_RANGE boundaries */
+    private static final int SAMPLES = 1 << 16;
+
+    /* Mismatches printed in the report */
+    private static final int SHOWN_MISMATCHES = 10;
+
+    private final TraceBuffer trace;
+    private final int partitions;
+    private final Partitioning partitioning;
+
+    /* KEY_RANGE: the lowest key of partitions 1 .. partitions - 1 */
+    private int[] boundaries;
+    private int[][] partitionOperations;
+    private int m;
+
+    /**
+     * @param trace: a trace starting with its only Initialize(m)
+     * @param partitions: the number of partitions, and of replaying threads
+     * @param partitioning: how operations are assigned to partitions
+     */
+    public PartitionedReplay(TraceBuffer trace, int partitions, Partitioning partitioning) {
+        this.trace = trace;
+        this.partitions = partitions;
+        this.partitioning = partitioning;
+        partition();
+    }
+
+    /**
+     * Reads a Bootstrap input file, replays it partitioned and sequentially,
+     * and prints the throughput of both and the outcome of the check.
+     * @param file: a Bootstrap input file
+     * @param threads: the number of partitions and threads
+     * @param partitioning: how operations are assigned to partitions
+     * @param report: where the report is printed
+     * @return true if the partitioned replay agrees with the sequential one
+     */
+    public static boolean replay(Path file, int threads, Partitioning partitioning, PrintStream report)
+            throws IOException, InterruptedException {
+        TraceBuffer trace = new TraceBuffer();
+        TextTraceParser.parse(file, trace);
+        return new PartitionedReplay(trace, threads, partitioning).run(report).isConsistent();
+    }
+
+    /**
+     * Replays the trace sequentially, then partitioned, and compares them.
+     * @param report: where the report is printed, or null
+     */
+    public Outcome run(PrintStream report) throws InterruptedException {
+        int[] all = new int[trace.size() - 1];
+        Arrays.setAll(all, i -> i + 1);
+        Replay reference = new Replay(new int[][]{all});
+        Replay parallel = new Replay(partitionOperations);
+
+        reference.run();
+        parallel.run();
+
+        Outcome outcome = compare(reference, parallel);
+        if (report != null) {
+            report(report, reference, parallel, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * The outcome of the check of a partitioned replay.
+     */
+    public static final class Outcome {
+
+        private long checked;
+        private long unchecked;
+        private long mismatches;
+        private boolean sameContents;
+        private final List<String> shown = new ArrayList<>();
+
+        /**
+         * @return true if every checked search and the final contents of
+         * the tree are those of the sequential replay
+         */
+        public boolean isConsistent() {
+            return mismatches == 0 && sameContents;
+        }
+
+        public long getChecked() {
+            return checked;
+        }
+
+        public long getUnchecked() {
+            return unchecked;
+        }
+
+        public long getMismatches() {
+            return mismatches;
+        }
+    }
+
+    /*
+     * One replay of the trace on a fresh tree and lock manager, one thread per
+     * group of operations. Search results are kept as hashes, per operation.
+     */
+    private final class Replay {
+
+        final int[][] groups;
+        final GSBTree<?, ?> tree = new GSBTree<>(m);
+        final LockManager lockManager = new LockManager();
+        final long[] results = new long[trace.size()];
+        long elapsedNanos;
+
+        Replay(int[][] groups) {
+            this.groups = groups;
+        }
+
+        void run() throws InterruptedException {
+            ExecutorService executor = Executors.newFixedThreadPool(groups.length);
+            try {
+                List<Callable<Void>> tasks = new ArrayList<>();
+                for (int[] group : groups) {
+                    tasks.add(() -> {
+                        replay(group);
+                        return null;
+                    });
+                }
+                long start = System.nanoTime();
+                List<Future<Void>> futures = executor.invokeAll(tasks);
+                elapsedNanos = System.nanoTime() - start;
+                for (Future<Void> future : futures) {
+                    future.get();
+                }
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Replay failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void replay(int[] operations) throws InterruptedException {
+            Object owner = new Object();
+            for (int index : operations) {
+                int key = trace.key(index);
+                switch (trace.opcode(index)) {
+                    case BinaryTrace.INSERT:
+                        lockManager.acquire(owner, TREE, LockMode.INTENTION_EXCLUSIVE);
+                        lockManager.acquire(owner, key, LockMode.EXCLUSIVE);
+                        tree.insert(key, trace.value(index));
+                        break;
+                    case BinaryTrace.DELETE:
+                        lockManager.acquire(owner, TREE, LockMode.INTENTION_EXCLUSIVE);
+                        lockManager.acquire(owner, key, LockMode.EXCLUSIVE);
+                        tree.delete(key);
+                        break;
+                    case BinaryTrace.SEARCH:
+                        lockManager.acquire(owner, TREE, LockMode.INTENTION_SHARED);
+                        lockManager.acquire(owner, key, LockMode.SHARED);
+                        results[index] = hash(tree.search(key));
+                        break;
+                    default:
+                        lockManager.acquire(owner, TREE, LockMode.SHARED);
+                        results[index] = hash(tree.search(key, trace.argument(index)));
+                        break;
+                }
+                lockManager.releaseAll(owner);
+            }
+        }
+
+        long contents() {
+            return hash(tree.search(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        }
+    }
+
+    private void partition() {
+        if (trace.size() == 0 || trace.opcode(0) != BinaryTrace.INITIALIZE) {
+            throw new IllegalArgumentException("The trace has to start with Initialize(m).");
+        }
+        m = trace.argument(0);
+        if (partitioning == Partitioning.KEY_RANGE) {
+            placeBoundaries();
+        }
+
+        int[] counts = new int[partitions];
+        int[] assigned = new int[trace.size()];
+        for (int i = 1; i < trace.size(); i++) {
+            if (trace.opcode(i) == BinaryTrace.INITIALIZE) {
+                throw new IllegalArgumentException("A partitioned trace can only have one Initialize(m).");
+            }
+            assigned[i] = partitionOf(trace.key(i));
+            counts[assigned[i]]++;
+        }
+        partitionOperations = new int[partitions][];
+        for (int p = 0; p < partitions; p++) {
+            partitionOperations[p] = new int[counts[p]];
+            counts[p] = 0;
+        }
+        for (int i = 1; i < trace.size(); i++) {
+            int p = assigned[i];
+            partitionOperations[p][counts[p]++] = i;
+        }
+    }
+
+    /* Quantiles of a sample of the keys, so that partitions get about as many operations */
+    private void placeBoundaries() {
+        int operations = trace.size() - 1;
+        int samples = Math.max(1, Math.min(SAMPLES, operations));
+        int[] sample = new int[samples];
+        for (int s = 0; s < samples; s++) {
+            sample[s] = operations == 0 ? 0 : trace.key(1 + (int) ((long) s * operations / samples));
+        }
+        Arrays.sort(sample);
+        boundaries = new int[partitions - 1];
+        for (int p = 1; p < partitions; p++) {
+            boundaries[p - 1] = sample[(int) ((long) p * samples / partitions)];
+        }
+    }
+
+    private int partitionOf(int key) {
+        if (partitioning == Partitioning.KEY_HASH) {
+            return Math.floorMod(Integer.hashCode(key) * 0x9E3779B9, partitions);
+        }
+        int index = Arrays.binarySearch(boundaries, key);
+        if (index < 0) {
+            return -index - 1;
+        }
+        /* Duplicate boundaries: the key goes to the last partition starting at it */
+        while (index + 1 < boundaries.length && boundaries[index + 1] == key) {
+            index++;
+        }
+        return index + 1;
+    }
+
+    private boolean checkable(int index) {
+        if (trace.opcode(index) == BinaryTrace.SEARCH) {
+            return true;
+        }
+        int lowerBound = trace.key(index);
+        int upperBound = trace.argument(index);
+        if (partitioning == Partitioning.KEY_HASH) {
+            return lowerBound == upperBound;
+        }
+        return lowerBound > upperBound || partitionOf(lowerBound) == partitionOf(upperBound);
+    }
+
+    private Outcome compare(Replay reference, Replay parallel) {
+        Outcome outcome = new Outcome();
+        for (int i = 1; i < trace.size(); i++) {
+            byte opcode = trace.opcode(i);
+            if (opcode != BinaryTrace.SEARCH && opcode != BinaryTrace.RANGE) {
+                continue;
+            }
+            if (!checkable(i)) {
+                outcome.unchecked++;
+                continue;
+            }
+            outcome.checked++;
+            if (reference.results[i] != parallel.results[i]) {
+                outcome.mismatches++;
+                if (outcome.shown.size() < SHOWN_MISMATCHES) {
+                    outcome.shown.add(describe(i));
+                }
+            }
+        }
+        outcome.sameContents = reference.contents() == parallel.contents();
+        return outcome;
+    }
+
+    private String describe(int index) {
+        return trace.opcode(index) == BinaryTrace.SEARCH ?
+                "operation " + index + ": Search(" + trace.key(index) + ")" :
+                "operation " + index + ": Search(" + trace.key(index) + ", " + trace.argument(index) + ")";
+    }
+
+    private void report(PrintStream out, Replay reference, Replay parallel, Outcome outcome) {
+        long operations = trace.size() - 1;
+        double sequential = reference.elapsedNanos / 1e9;
+        double partitioned = parallel.elapsedNanos / 1e9;
+        out.printf(Locale.ROOT, "sequential: %d operations in %.3f s, %.0f ops/sec%n",
+                operations, sequential, operations / sequential);
+        out.printf(Locale.ROOT, "%d threads (%s): %d operations in %.3f s, %.0f ops/sec, speedup %.2fx%n",
+                partitions, partitioning, operations, partitioned, operations / partitioned, sequential / partitioned);
+        StringBuilder sizes = new StringBuilder();
+        for (int[] group : partitionOperations) {
+            sizes.append(sizes.length() == 0 ? "" : ", ").append(group.length);
+        }
+        out.println("operations per partition: " + sizes);
+        out.printf("checked %d searches, %d mismatches; %d range searches across partitions unchecked; "
+                        + "final contents %s%n",
+                outcome.checked, outcome.mismatches, outcome.unchecked,
+                outcome.sameContents ? "match" : "DIFFER");
+        for (String mismatch : outcome.shown) {
+            out.println("  mismatch at " + mismatch);
+        }
+    }
+
+    /* The number of values, then the values */
+    private static long hash(Double value) {
+        return value == null ? 0 : 31 + Double.doubleToLongBits(value);
+    }
+
+    private static long hash(List<Double> values) {
+        long hash = values.size();
+        for (Double value : values) {
+            hash = hash * 31 + Double.doubleToLongBits(value);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,110 @@
+package replay;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 02:45
+ */
+
+/**
+ * Replays a trace on a tree and writes the search results through a
+ * ResultWriter. Initialize(m) replaces the tree with an empty one of order m.
+ */
+public class ReplayEngine implements TraceHandler {
+
+    private final String impl;
+    private final ResultWriter results;
+    private ReplayTree tree;
+
+    private long operations;
+    private long searches;
+
+    /**
+     * @param impl: the tree to replay on, "BPlusTree" or "GSBTree"
+     * @param results: where search results go
+     */
+    public ReplayEngine(String impl, ResultWriter results) {
+        this.impl = impl;
+        this.results = results;
+    }
+
+    /**
+     * Replays a Bootstrap input file and reports the throughput.
+     * @param trace: the input file
+     * @param output: the file for the search results, overwritten
+     * @param impl: the tree to replay on, "BPlusTree" or "GSBTree"
+     * @param report: where the operation count and ops/sec are printed
+     * @return the number of operations replayed
+     */
+    public static long replay(Path trace, Path output, String impl, PrintStream report) throws IOException {
+        long start = System.nanoTime();
+        ReplayEngine engine;
+        try (ResultWriter results = new ResultWriter(new FileOutputStream(output.toFile(), false))) {
+            engine = new ReplayEngine(impl, results);
+            TextTraceParser.parse(trace, engine);
+        }
+        engine.report(report, System.nanoTime() - start);
+        return engine.operations;
+    }
+
+    @Override
+    public void initialize(int m) {
+        tree = ReplayTree.of(impl, m);
+        operations++;
+    }
+
+    @Override
+    public void insert(int key, double value) {
+        tree().insert(key, value);
+        operations++;
+    }
+
+    @Override
+    public void delete(int key) {
+        tree().delete(key);
+        operations++;
+    }
+
+    @Override
+    public void search(int key) throws IOException {
+        results.write(tree().search(key));
+        operations++;
+        searches++;
+    }
+
+    @Override
+    public void search(int lowerBound, int upperBound) throws IOException {
+        results.write(tree().search(lowerBound, upperBound));
+        operations++;
+        searches++;
+    }
+
+    public long getOperations() {
+        return operations;
+    }
+
+    public long getSearches() {
+        return searches;
+    }
+
+    /**
+     * @param out: where the report is printed
+     * @param elapsedNanos: time the replay took
+     */
+    public void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%s: replayed %d operations (%d searches) in %.3f s, %.0f ops/sec%n",
+                impl, operations, searches, seconds, seconds == 0 ? 0 : operations / seconds);
+    }
+
+    private ReplayTree tree() {
+        if (tree == null) {
+            throw new IllegalArgumentException("The trace has to start with Initialize(m).");
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,73 @@
+package replay;
+
+import btree.GSBTree;
+import example.BPlusTree;
+
+import java.util.List;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 02:15
+ */
+
+/**
+ * The operations of a trace on one of the trees.
+ */
+public interface ReplayTree {
+
+    void insert(int key, double value);
+
+    void delete(int key);
+
+    Double search(int key);
+
+    List<Double> search(int lowerBound, int upperBound);
+
+    /**
+     * @param impl: "BPlusTree" (example.BPlusTree) or "GSBTree"
+     * @param m: the order (fanout) of the tree
+     * @return an empty tree
+     */
+    static ReplayTree of(String impl, int m) {
+        switch (impl) {
+            case "BPlusTree":
+                return bPlusTree(new BPlusTree(m));
+            case "GSBTree":
+                return gsbTree(new GSBTree<>(m));
+            default:
+                throw new IllegalArgumentException("\"" + impl + "\"" + " is not a tree, use BPlusTree or GSBTree.");
+        }
+    }
+
+    static ReplayTree bPlusTree(BPlusTree tree) {
+        return new ReplayTree() {
+            @Override
+            public void insert(int key, double value) { tree.insert(key, value); }
+
+            @Override
+            public void delete(int key) { tree.delete(key); }
+
+            @Override
+            public Double search(int key) { return tree.search(key); }
+
+            @Override
+            public List<Double> search(int lowerBound, int upperBound) { return tree.search(lowerBound, upperBound); }
+        };
+    }
+
+    static ReplayTree gsbTree(GSBTree<?, ?> tree) {
+        return new ReplayTree() {
+            @Override
+            public void insert(int key, double value) { tree.insert(key, value); }
+
+            @Override
+            public void delete(int key) { tree.delete(key); }
+
+            @Override
+            public Double search(int key) { return tree.search(key); }
+
+            @Override
+            public List<Double> search(int lowerBound, int upperBound) { return tree.search(lowerBound, upperBound); }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+package replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 02:20
+ */
+
+/**
+ * Writes search results in the format of Bootstrap's output_file.txt: one
+ * line per search, the value (or the values of a range, separated by ", ")
+ * as Double.toString prints it, or "Null"; no newline after the last line.
+ * The bytes go into a large buffer that is only written out when full and
+ * on close, and integral values are formatted without building a String.
+ */
+public final class ResultWriter implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final byte[] NULL = {'N', 'u', 'l', 'l'};
+
+    /* Double.toString switches to E notation from 10^7 */
+    private static final double PLAIN_LIMIT = 1e7;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int count;
+    private boolean firstLine = true;
+
+    private final byte[] digits = new byte[20];
+    private final StringBuilder scratch = new StringBuilder(32);
+
+    public ResultWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param out: where the results go, usually an unbuffered FileOutputStream
+     * @param bufferSize: bytes buffered before a write to out
+     */
+    public ResultWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Writes the result of a point search.
+     * @param value: the value found, or null
+     */
+    public void write(Double value) throws IOException {
+        newLine();
+        if (value == null) {
+            put(NULL);
+        } else {
+            putDouble(value);
+        }
+    }
+
+    /**
+     * Writes the result of a range search.
+     * @param values: the values found, possibly none
+     */
+    public void write(List<Double> values) throws IOException {
+        newLine();
+        if (values.isEmpty()) {
+            put(NULL);
+            return;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                put((byte) ',');
+                put((byte) ' ');
+            }
+            putDouble(values.get(i));
+        }
+    }
+
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void newLine() throws IOException {
+        if (firstLine) {
+            firstLine = false;
+        } else {
+            put((byte) '\n');
+        }
+    }
+
+    private void putDouble(double value) throws IOException {
+        if (value != 0 && value == (long) value && Math.abs(value) < PLAIN_LIMIT) {
+            putLong((long) value);
+            put((byte) '.');
+            put((byte) '0');
+            return;
+        }
+        scratch.setLength(0);
+        scratch.append(value);
+        for (int i = 0; i < scratch.length(); i++) {
+            put((byte) scratch.charAt(i));
+        }
+    }
+
+    private void putLong(long value) throws IOException {
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        put(digits, start, digits.length - start);
+    }
+
+    private void put(byte b) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = b;
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        put(bytes, 0, bytes.length);
+    }
+
+    private void put(byte[] bytes, int offset, int length) throws IOException {
+        if (buffer.length - count < length) {
+            drain();
+        }
+        System.arraycopy(bytes, offset, buffer, count, length);
+        count += length;
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package replay;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 02:30
+ */
+
+/**
+ * Parses a Bootstrap input file, one operation per line, straight from the
+ * bytes of the memory-mapped file: no Scanner, no line Strings, no regex.
+ * Spaces and tabs are allowed anywhere but inside a number, lines may end
+ * with \r\n, empty lines are skipped. Files larger than WINDOW are mapped
+ * one window at a time; a line is never split between two windows.
+ */
+public final class TextTraceParser {
+
+    /* Mapped at most this much of the file at a time */
+    private static final long WINDOW = 1L << 30;
+
+    /* A window is moved forward when less than this is left in it */
+    private static final int MAX_LINE = 1 << 12;
+
+    /* Mantissas of at most 15 digits and their powers of ten are exact doubles */
+    private static final int EXACT_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    private static final byte[] INITIALIZE = "Initialize".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] INSERT = "Insert".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DELETE = "Delete".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SEARCH = "Search".getBytes(StandardCharsets.US_ASCII);
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final FileChannel channel;
+    private final long size;
+
+    private MappedByteBuffer buffer;
+    private long base;
+    private int limit;
+    private int position;
+
+    private int lineStart;
+    private long lineNumber;
+
+    private TextTraceParser(FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        map(0);
+    }
+
+    /**
+     * Parses the file and hands every operation to the handler, in order.
+     * @param path: a file in the Bootstrap input format
+     * @param handler: receives the operations
+     * @return the number of operations
+     * @throws IllegalArgumentException on a line that is not an operation
+     */
+    public static long parse(Path path, TraceHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new TextTraceParser(channel).parse(handler);
+        }
+    }
+
+    private long parse(TraceHandler handler) throws IOException {
+        long operations = 0;
+        while (true) {
+            if (limit - position < MAX_LINE && base + limit < size) {
+                map(base + position);
+            }
+            skipBlanks();
+            if (position == limit) {
+                return operations;
+            }
+            lineStart = position;
+            lineNumber++;
+            if (endOfLine()) {
+                continue;
+            }
+
+            int commandStart = position;
+            while (position < limit && isLetter(buffer.get(position))) {
+                position++;
+            }
+            int commandLength = position - commandStart;
+            expect('(');
+            int first = parseInt();
+            skipBlanks();
+
+            if (is(commandStart, commandLength, SEARCH)) {
+                if (accept(',')) {
+                    handler.search(first, parseInt());
+                } else {
+                    handler.search(first);
+                }
+            } else if (is(commandStart, commandLength, INSERT)) {
+                expect(',');
+                handler.insert(first, parseDouble());
+            } else if (is(commandStart, commandLength, DELETE)) {
+                handler.delete(first);
+            } else if (is(commandStart, commandLength, INITIALIZE)) {
+                handler.initialize(first);
+            } else {
+                throw unacceptable();
+            }
+            expect(')');
+            if (!endOfLine()) {
+                throw unacceptable();
+            }
+            operations++;
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        base = offset;
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(WINDOW, size - offset));
+        limit = buffer.limit();
+        position = 0;
+    }
+
+    /* Consumes trailing blanks and the line break, if the line ends here */
+    private boolean endOfLine() {
+        skipBlanks();
+        if (position == limit) {
+            return true;
+        }
+        byte b = buffer.get(position);
+        if (b == '\n') {
+            position++;
+            return true;
+        }
+        if (b == '\r' && position + 1 < limit && buffer.get(position + 1) == '\n') {
+            position += 2;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipBlanks() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean accept(char c) {
+        skipBlanks();
+        if (position < limit && buffer.get(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!accept(c)) {
+            throw unacceptable();
+        }
+    }
+
+    private int parseInt() {
+        skipBlanks();
+        boolean negative = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position++) == '-';
+        }
+        int start = position;
+        long value = 0;
+        while (position < limit && isDigit(buffer.get(position))) {
+            value = value * 10 + (buffer.get(position++) - '0');
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw unacceptable();
+            }
+        }
+        if (position == start) {
+            throw unacceptable();
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw unacceptable();
+        }
+        return (int) value;
+    }
+
+    /*
+     * A plain decimal of at most 15 digits is one exact division, as
+     * correctly rounded as Double.parseDouble; anything else (exponents,
+     * long mantissas) is handed to Double.parseDouble.
+     */
+    private double parseDouble() {
+        skipBlanks();
+        int start = position;
+        boolean negative = false;
+        if (position < limit && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+            negative = buffer.get(position++) == '-';
+        }
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        boolean plain = true;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (isDigit(b)) {
+                if (digitCount < EXACT_DIGITS) {
+                    mantissa = mantissa * 10 + (b - '0');
+                } else {
+                    plain = false;
+                }
+                digitCount++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b == 'e' || b == 'E' || b == '-' || b == '+') {
+                plain = false;
+            } else {
+                break;
+            }
+            position++;
+        }
+        if (digitCount == 0) {
+            throw unacceptable();
+        }
+        if (plain) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        try {
+            return Double.parseDouble(text(start, position));
+        } catch (NumberFormatException e) {
+            throw unacceptable();
+        }
+    }
+
+    private boolean is(int start, int length, byte[] word) {
+        if (length != word.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(start + i) != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private IllegalArgumentException unacceptable() {
+        int end = lineStart;
+        while (end < limit && buffer.get(end) != '\n' && buffer.get(end) != '\r') {
+            end++;
+        }
+        return new IllegalArgumentException("\"" + text(lineStart, end) + "\"" +
+                " is an unacceptable input (line " + lineNumber + ").");
+    }
+
+    private String text(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static boolean isLetter(byte b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z');
+    }
+}
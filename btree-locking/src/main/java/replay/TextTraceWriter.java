@@ -0,0 +1,93 @@
+package replay;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 05:10
+ */
+
+/**
+ * Writes the operations it is handed in the Bootstrap input format, one per
+ * line, through a large buffer.
+ */
+public final class TextTraceWriter implements TraceWriter {
+
+    private final OutputStream out;
+    private final int bufferSize;
+    private final StringBuilder buffer;
+
+    public TextTraceWriter(OutputStream out) {
+        this(out, ResultWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param out: where the trace goes, usually an unbuffered FileOutputStream
+     * @param bufferSize: characters buffered before a write to out
+     */
+    public TextTraceWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.bufferSize = bufferSize;
+        this.buffer = new StringBuilder(bufferSize + 64);
+    }
+
+    @Override
+    public void initialize(int m) throws IOException {
+        buffer.append("Initialize(").append(m).append(")\n");
+        drainIfFull();
+    }
+
+    @Override
+    public void insert(int key, double value) throws IOException {
+        buffer.append("Insert(").append(key).append(", ").append(value).append(")\n");
+        drainIfFull();
+    }
+
+    @Override
+    public void delete(int key) throws IOException {
+        buffer.append("Delete(").append(key).append(")\n");
+        drainIfFull();
+    }
+
+    @Override
+    public void search(int key) throws IOException {
+        buffer.append("Search(").append(key).append(")\n");
+        drainIfFull();
+    }
+
+    @Override
+    public void search(int lowerBound, int upperBound) throws IOException {
+        buffer.append("Search(").append(lowerBound).append(", ").append(upperBound).append(")\n");
+        drainIfFull();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void drainIfFull() throws IOException {
+        if (buffer.length() >= bufferSize) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (buffer.length() > 0) {
+            out.write(buffer.toString().getBytes(StandardCharsets.US_ASCII));
+            buffer.setLength(0);
+        }
+    }
+}
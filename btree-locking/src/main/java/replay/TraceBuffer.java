@@ -0,0 +1,92 @@
+package replay;
+
+import java.util.Arrays;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 04:10
+ */
+
+/**
+ * A trace held in memory as parallel primitive arrays, one slot per
+ * operation, with the BinaryTrace opcodes. Filled by a trace reader (it is
+ * a TraceHandler) and read by index, so that a replay can be split up and
+ * repeated without parsing again.
+ */
+public final class TraceBuffer implements TraceHandler {
+
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    private byte[] opcodes = new byte[INITIAL_CAPACITY];
+    private int[] keys = new int[INITIAL_CAPACITY];
+    /* The order of INITIALIZE, the upper bound of RANGE */
+    private int[] arguments = new int[INITIAL_CAPACITY];
+    private double[] values = new double[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void initialize(int m) {
+        add(BinaryTrace.INITIALIZE, 0, m, 0);
+    }
+
+    @Override
+    public void insert(int key, double value) {
+        add(BinaryTrace.INSERT, key, 0, value);
+    }
+
+    @Override
+    public void delete(int key) {
+        add(BinaryTrace.DELETE, key, 0, 0);
+    }
+
+    @Override
+    public void search(int key) {
+        add(BinaryTrace.SEARCH, key, 0, 0);
+    }
+
+    @Override
+    public void search(int lowerBound, int upperBound) {
+        add(BinaryTrace.RANGE, lowerBound, upperBound, 0);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte opcode(int index) {
+        return opcodes[index];
+    }
+
+    /**
+     * @return the key, or the lower bound of a range search
+     */
+    public int key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the order of Initialize, or the upper bound of a range search
+     */
+    public int argument(int index) {
+        return arguments[index];
+    }
+
+    public double value(int index) {
+        return values[index];
+    }
+
+    private void add(byte opcode, int key, int argument, double value) {
+        if (size == opcodes.length) {
+            int capacity = Math.max(size + 1, (int) Math.min(Integer.MAX_VALUE - 8, size * 2L));
+            opcodes = Arrays.copyOf(opcodes, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            arguments = Arrays.copyOf(arguments, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        opcodes[size] = opcode;
+        keys[size] = key;
+        arguments[size] = argument;
+        values[size] = value;
+        size++;
+    }
+}
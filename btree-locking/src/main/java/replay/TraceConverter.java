@@ -0,0 +1,55 @@
+package replay;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 03:40
+ */
+
+/**
+ * Converts a Bootstrap input file (Initialize(m), Insert(k, v), Delete(k),
+ * Search(k), Search(a, b)) into a BinaryTrace.
+ * <pre>
+ *     java -cp btree-locking/target/classes replay.TraceConverter input_file.txt trace.bin
+ * </pre>
+ */
+public final class TraceConverter {
+
+    private TraceConverter() {
+    }
+
+    /**
+     * @param text: a Bootstrap input file
+     * @param binary: the BinaryTrace file to write, overwritten
+     * @return the number of operations converted
+     */
+    public static long convert(Path text, Path binary) throws IOException {
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(new FileOutputStream(binary.toFile(), false))) {
+            return TextTraceParser.parse(text, writer);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("usage: java replay.TraceConverter <input_file> <trace_file>");
+            System.exit(-1);
+        }
+        try {
+            Path text = Paths.get(args[0]);
+            Path binary = Paths.get(args[1]);
+            long start = System.nanoTime();
+            long operations = convert(text, binary);
+            System.out.printf("converted %d operations in %.3f s: %d bytes of text, %d bytes of trace%n",
+                    operations, (System.nanoTime() - start) / 1e9, Files.size(text), Files.size(binary));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e);
+        } catch (IOException e) {
+            System.err.println(e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package replay;
+
+import java.io.IOException;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 02:10
+ */
+
+/**
+ * Receives the operations of a trace, in order, from a trace reader. The
+ * operations are those of the Bootstrap input format:
+ * <pre>
+ *     Initialize(m)
+ *     Insert(key, value)
+ *     Delete(key)
+ *     Search(key)
+ *     Search(lowerBound, upperBound)
+ * </pre>
+ */
+public interface TraceHandler {
+
+    /**
+     * @param m: the order (fanout) of the tree to create
+     */
+    void initialize(int m) throws IOException;
+
+    void insert(int key, double value) throws IOException;
+
+    void delete(int key) throws IOException;
+
+    void search(int key) throws IOException;
+
+    void search(int lowerBound, int upperBound) throws IOException;
+}
@@ -0,0 +1,16 @@
+package replay;
+
+import java.io.Closeable;
+import java.io.Flushable;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 05:15
+ */
+
+/**
+ * A TraceHandler that writes the trace to a file: TextTraceWriter for the
+ * Bootstrap input format, BinaryTraceWriter for BinaryTrace.
+ */
+public interface TraceWriter extends TraceHandler, Closeable, Flushable {
+}
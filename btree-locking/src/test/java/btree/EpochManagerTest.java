@@ -0,0 +1,53 @@
+package btree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 11:20
+ */
+
+/**
+ * Objects are reclaimed once no traversal can hold them, also when the
+ * thread that retired them never retires or collects again.
+ */
+class EpochManagerTest {
+
+    @Test
+    void readerDefersReclamation() {
+        List<String> reclaimed = new CopyOnWriteArrayList<>();
+        EpochManager<String> epochs = new EpochManager<>(reclaimed::add);
+        epochs.enter();
+        epochs.retire("unlinked");
+        for (int i = 0; i < 10; i++) {
+            epochs.collect();
+        }
+        epochs.exit();
+        assertTrue(reclaimed.isEmpty(), "reclaimed inside the traversal that may hold it");
+
+        for (int i = 0; i < 10; i++) {
+            epochs.collect();
+        }
+        assertEquals(List.of("unlinked"), reclaimed);
+    }
+
+    @Test
+    void otherThreadsReclaimWhatAnIdleThreadRetired() throws Exception {
+        List<String> reclaimed = new CopyOnWriteArrayList<>();
+        EpochManager<String> epochs = new EpochManager<>(reclaimed::add);
+        Thread retirer = new Thread(() -> epochs.retire("unlinked"));
+        retirer.start();
+        retirer.join();
+
+        for (int i = 0; i < 10; i++) {
+            epochs.collect();
+        }
+        assertEquals(List.of("unlinked"), reclaimed);
+    }
+}
@@ -0,0 +1,125 @@
+package btree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 09:10
+ */
+
+/**
+ * Random inserts, updates and deletes on a GSBTree, checked against a
+ * TreeMap after every step that reads. The keys span the whole int range,
+ * so the separators of an InternalNode differ by more than
+ * Integer.MAX_VALUE, as well as narrow ranges that compress.
+ */
+class GSBTreeRandomizedTest {
+
+    private static final int OPERATIONS = 20_000;
+
+    @Test
+    void fullRangeKeys() {
+        for (int m : new int[]{3, 4, 8, 16, 64, 256}) {
+            for (long seed = 0; seed < 8; seed++) {
+                check(new GSBTree<>(m), seed, new SplittableRandom(seed)::nextInt);
+            }
+        }
+    }
+
+    @Test
+    void fullRangeKeysSeparateOrders() {
+        for (int[] orders : new int[][]{{3, 64}, {64, 3}, {6, 36}, {93, 676}}) {
+            for (long seed = 0; seed < 4; seed++) {
+                check(new GSBTree<>(orders[0], orders[1]), seed, new SplittableRandom(seed)::nextInt);
+            }
+        }
+    }
+
+    @Test
+    void narrowAndExtremeKeys() {
+        for (int m : new int[]{3, 8, 64}) {
+            for (long seed = 0; seed < 4; seed++) {
+                SplittableRandom random = new SplittableRandom(seed);
+                check(new GSBTree<>(m), seed, () -> {
+                    switch (random.nextInt(4)) {
+                        case 0:
+                            return random.nextInt(5000) - 2500;
+                        case 1:
+                            return (random.nextInt(4000) - 2000) * 1024;
+                        case 2:
+                            return Integer.MIN_VALUE + random.nextInt(8);
+                        default:
+                            return Integer.MAX_VALUE - random.nextInt(8);
+                    }
+                });
+            }
+        }
+    }
+
+    @Test
+    void shortestSeparatorIsBetweenTheBounds() {
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < 1_000_000; i++) {
+            int lower = random.nextInt();
+            int upper = (i % 2 == 0) ? random.nextInt() : lower + 1 + random.nextInt(64);
+            if (lower >= upper) { continue; }
+            int separator = GSBTree.shortestSeparator(lower, upper);
+            assertTrue(lower < separator && separator <= upper, lower + " < " + separator + " <= " + upper);
+            if ((long) upper - lower <= 64) {
+                int best = upper;
+                for (int key = lower + 1; key < upper; key++) {
+                    if (Integer.numberOfTrailingZeros(key) > Integer.numberOfTrailingZeros(best)) { best = key; }
+                }
+                assertEquals(Integer.numberOfTrailingZeros(best), Integer.numberOfTrailingZeros(separator),
+                        "(" + lower + ", " + upper + "]");
+            }
+        }
+    }
+
+    private interface Keys {
+        int next();
+    }
+
+    private static void check(GSBTree<Integer, Double> tree, long seed, Keys keys) {
+        String run = "order " + tree.getLeafOrder() + "/" + tree.getInternalOrder() + ", seed " + seed;
+        TreeMap<Integer, Double> expected = new TreeMap<>();
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        ArrayList<Integer> inserted = new ArrayList<>();
+        for (int op = 0; op < OPERATIONS; op++) {
+            int choice = random.nextInt(10);
+            if (choice < 6 || inserted.isEmpty()) {
+                int key = keys.next();
+                tree.insert(key, op);
+                expected.put(key, (double) op);
+                inserted.add(key);
+            } else if (choice < 8) {
+                int key = inserted.get(random.nextInt(inserted.size()));
+                if (expected.remove(key) != null) {
+                    tree.delete(key);
+                }
+            } else {
+                int key = random.nextBoolean() ? inserted.get(random.nextInt(inserted.size())) : keys.next();
+                assertEquals(expected.get(key), tree.search(key), run + ", search(" + key + ") at op " + op);
+            }
+        }
+
+        for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), tree.search(entry.getKey()), run + ", search(" + entry.getKey() + ")");
+        }
+        assertEquals(new ArrayList<>(expected.values()), tree.search(Integer.MIN_VALUE, Integer.MAX_VALUE),
+                run + ", full range");
+
+        for (int key : expected.keySet()) {
+            tree.delete(key);
+        }
+        assertTrue(tree.isEmpty(), run + ", empty after deleting every key");
+    }
+}
@@ -0,0 +1,125 @@
+package btree;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 10:05
+ */
+
+/**
+ * Deletes under open snapshots leave tombstones; once the snapshots that
+ * could see the deleted values are closed, the tombstones are removed and
+ * the tree shrinks as if the deletes had run without snapshots.
+ */
+class GSBTreeSnapshotTest {
+
+    private static final int KEYS = 10_000;
+
+    @Test
+    void closingTheSnapshotEmptiesTheTree() {
+        GSBTree<Integer, Double> tree = new GSBTree<>(4);
+        for (int key = 0; key < KEYS; key++) {
+            tree.insert(key, key);
+        }
+        int height = tree.getHeight();
+
+        Snapshot snapshot = tree.openSnapshot();
+        for (int key = 0; key < KEYS; key++) {
+            tree.delete(key);
+        }
+        assertNull(tree.search(KEYS / 2));
+        assertEquals(Double.valueOf(KEYS / 2), tree.search(KEYS / 2, snapshot));
+        assertEquals(KEYS, tree.search(0, KEYS, snapshot).size());
+        assertFalse(tree.isEmpty());
+        assertEquals(height, tree.getHeight());
+
+        snapshot.close();
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.getHeight());
+    }
+
+    @Test
+    void vacuumKeepsWhatAnOpenSnapshotReads() {
+        GSBTree<Integer, Double> tree = new GSBTree<>(3);
+        for (int key = 0; key < KEYS; key++) {
+            tree.insert(key, key);
+        }
+        Snapshot snapshot = tree.openSnapshot();
+        for (int key = 0; key < KEYS; key += 2) {
+            tree.delete(key);
+            tree.insert(key + 1, -key);
+        }
+        tree.vacuum();
+        assertEquals(KEYS, tree.search(0, KEYS, snapshot).size());
+        assertEquals(Double.valueOf(1), tree.search(1, snapshot));
+
+        snapshot.close();
+        tree.vacuum();
+        assertEquals(KEYS / 2, tree.search(0, KEYS).size());
+        assertEquals(Double.valueOf(0), tree.search(1));
+        for (int key = 1; key < KEYS; key += 2) {
+            tree.delete(key);
+        }
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    void writesUnderSnapshotsMatchTreeMap() {
+        for (int m : new int[]{3, 4, 16}) {
+            for (long seed = 0; seed < 4; seed++) {
+                check(new GSBTree<>(m), seed);
+            }
+        }
+    }
+
+    private static void check(GSBTree<Integer, Double> tree, long seed) {
+        String run = "order " + tree.getLeafOrder() + ", seed " + seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        TreeMap<Integer, Double> expected = new TreeMap<>();
+        ArrayDeque<Snapshot> snapshots = new ArrayDeque<>();
+        ArrayDeque<ArrayList<Double>> seen = new ArrayDeque<>();
+
+        for (int op = 0; op < 20_000; op++) {
+            int key = random.nextInt(2_000);
+            int choice = random.nextInt(100);
+            if (choice < 45) {
+                tree.insert(key, op);
+                expected.put(key, (double) op);
+            } else if (choice < 90) {
+                if (expected.remove(key) != null) { tree.delete(key); }
+            } else if (choice < 94) {
+                snapshots.addLast(tree.openSnapshot());
+                seen.addLast(new ArrayList<>(expected.values()));
+            } else if (choice < 98 && !snapshots.isEmpty()) {
+
+                /* Close the oldest snapshot, after checking it still reads its state */
+                assertEquals(seen.pollFirst(), tree.search(Integer.MIN_VALUE, Integer.MAX_VALUE, snapshots.peekFirst()),
+                        run + ", snapshot at op " + op);
+                snapshots.pollFirst().close();
+            } else {
+                assertEquals(expected.get(key), tree.search(key), run + ", search(" + key + ") at op " + op);
+            }
+        }
+        for (Snapshot snapshot : snapshots) {
+            snapshot.close();
+        }
+
+        assertEquals(new ArrayList<>(expected.values()), tree.search(Integer.MIN_VALUE, Integer.MAX_VALUE), run);
+        for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+            tree.delete(entry.getKey());
+        }
+        assertTrue(tree.isEmpty(), run + ", empty after deleting every key");
+    }
+}
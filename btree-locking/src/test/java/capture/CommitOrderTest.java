@@ -0,0 +1,102 @@
+package capture;
+
+import org.junit.jupiter.api.Test;
+import replay.BinaryTrace;
+import replay.TraceHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 10:55
+ */
+
+/**
+ * Transactions whose listeners ran out of order, interleaved in a
+ * TraceRing, come out of CommitOrder by transaction id.
+ */
+class CommitOrderTest {
+
+    private static final long FOREVER = Long.MAX_VALUE;
+
+    @Test
+    void interleavedTransactionsAreWrittenByTransactionId() throws Exception {
+        TraceRing ring = new TraceRing(64);
+        Recorder recorder = new Recorder();
+        CommitOrder order = new CommitOrder(recorder, FOREVER);
+
+        /* 11 committed first, but its listener finishes after 12's and 13's */
+        ring.offer(BinaryTrace.INSERT, 11, 1, 0, 1.0);
+        ring.offer(BinaryTrace.INSERT, 12, 2, 0, 2.0);
+        ring.offer(TraceRing.COMMIT, 12, 0, 0, 0);
+        ring.offer(BinaryTrace.DELETE, 11, 3, 0, 0);
+        ring.offer(BinaryTrace.INSERT, 13, 3, 0, 3.0);
+        ring.offer(TraceRing.COMMIT, 13, 0, 0, 0);
+        ring.offer(TraceRing.COMMIT, 11, 0, 0, 0);
+        ring.drain(order, 64);
+
+        /* Nothing was written yet, so 11 still waits for the ids before it */
+        assertEquals(0, order.flush(false));
+        assertEquals(4, order.flush(true));
+        assertEquals(List.of("Insert(1,1.0)", "Delete(3)", "Insert(2,2.0)", "Insert(3,3.0)"), recorder.operations);
+
+        /* 14 follows the last id written and goes out at once */
+        ring.offer(BinaryTrace.DELETE, 14, 1, 0, 0);
+        ring.offer(TraceRing.COMMIT, 14, 0, 0, 0);
+        ring.drain(order, 64);
+        assertEquals(1, order.flush(false));
+        assertEquals("Delete(1)", recorder.operations.get(4));
+        assertEquals(0, order.getLate());
+    }
+
+    @Test
+    void missingIdsOnlyCostTheGracePeriod() throws Exception {
+        Recorder recorder = new Recorder();
+        CommitOrder order = new CommitOrder(recorder, 0);
+        order.accept(20, BinaryTrace.INSERT, 1, 0, 1.0);
+        order.accept(20, TraceRing.COMMIT, 0, 0, 0);
+        order.accept(22, BinaryTrace.INSERT, 2, 0, 2.0);
+        order.accept(22, TraceRing.COMMIT, 0, 0, 0);
+        assertEquals(2, order.flush(false));
+
+        /* 21 shows up after 22 was written: out of order, but not lost */
+        order.accept(21, BinaryTrace.INSERT, 3, 0, 3.0);
+        order.accept(21, TraceRing.COMMIT, 0, 0, 0);
+        assertEquals(1, order.flush(false));
+        assertEquals(1, order.getLate());
+        assertEquals(List.of("Insert(1,1.0)", "Insert(2,2.0)", "Insert(3,3.0)"), recorder.operations);
+    }
+
+    private static final class Recorder implements TraceHandler {
+
+        final List<String> operations = new ArrayList<>();
+
+        @Override
+        public void initialize(int m) {
+            operations.add("Initialize(" + m + ")");
+        }
+
+        @Override
+        public void insert(int key, double value) {
+            operations.add("Insert(" + key + "," + value + ")");
+        }
+
+        @Override
+        public void delete(int key) {
+            operations.add("Delete(" + key + ")");
+        }
+
+        @Override
+        public void search(int key) {
+            operations.add("Search(" + key + ")");
+        }
+
+        @Override
+        public void search(int lowerBound, int upperBound) {
+            operations.add("Search(" + lowerBound + "," + upperBound + ")");
+        }
+    }
+}
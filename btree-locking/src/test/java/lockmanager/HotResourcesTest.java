@@ -0,0 +1,63 @@
+package lockmanager;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 11:45
+ */
+
+/**
+ * The few hot resources among many cold ones come out of top() first,
+ * counted from many threads at once.
+ */
+class HotResourcesTest {
+
+    private static final int HOT = 4;
+    private static final int COLD = 100_000;
+
+    @Test
+    void hotResourcesComeFirst() throws Exception {
+        HotResources sketch = new HotResources(16, 8);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long seed = t;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                for (int i = 0; i < 200_000; i++) {
+                    int resource = random.nextInt(4) == 0 ? HOT + random.nextInt(COLD) : random.nextInt(HOT);
+                    sketch.offer("r" + resource);
+                }
+            }));
+        }
+        for (Thread thread : threads) { thread.start(); }
+        for (Thread thread : threads) { thread.join(); }
+
+        List<String> top = sketch.top(HOT);
+        assertEquals(HOT, top.size());
+        for (String entry : top) {
+            String resource = entry.substring(0, entry.indexOf('='));
+            assertTrue(Integer.parseInt(resource.substring(1)) < HOT, top.toString());
+        }
+    }
+
+    @Test
+    void exactWhileTheSketchIsNotFull() {
+        HotResources sketch = new HotResources(8, 1);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j <= i; j++) {
+                sketch.offer(i);
+            }
+        }
+        assertEquals(List.of("4=5 (+-0)", "3=4 (+-0)", "2=3 (+-0)"), sketch.top(3));
+        sketch.clear();
+        assertTrue(sketch.top(3).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package lockmanager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.neo4j.configuration.Config;
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.lock.LockTracer;
+import org.neo4j.lock.ResourceTypes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author I-Chung, Wang
+ * @date 2026/10/20 上午 09:40
+ */
+
+/**
+ * Two transactions that lock the same nodes in opposite order: one of them
+ * gets a DeadlockDetectedException, the other one its lock once the victim
+ * is closed. Neo4j's lock acquisition timeout is 0, i.e. without detection
+ * both would wait forever; the timeouts fail such a regression instead.
+ */
+class StripedLocksDeadlockTest {
+
+    @Test
+    @Timeout(30)
+    void oppositeOrderIsDetected() throws Exception {
+        StripedLocks locks = new StripedLocks(Config.defaults());
+        try {
+            StripedLockClient first = (StripedLockClient) locks.newClient();
+            StripedLockClient second = (StripedLockClient) locks.newClient();
+            first.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1);
+            second.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 2);
+
+            CompletableFuture<Void> firstWait = CompletableFuture.runAsync(
+                    () -> first.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 2));
+            while (!locks.isWaiting(first) && !firstWait.isDone()) {
+                Thread.sleep(1);
+            }
+            CompletableFuture<Void> secondWait = CompletableFuture.runAsync(
+                    () -> second.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 1));
+            while (!firstWait.isDone() && !secondWait.isDone()) {
+                Thread.sleep(1);
+            }
+
+            /* Either one may be the victim, closing it releases its lock to the other */
+            boolean firstIsVictim = firstWait.isDone();
+            CompletableFuture<Void> victimWait = firstIsVictim ? firstWait : secondWait;
+            CompletableFuture<Void> survivorWait = firstIsVictim ? secondWait : firstWait;
+            Locks.Client victim = firstIsVictim ? first : second;
+            Locks.Client survivor = firstIsVictim ? second : first;
+            ExecutionException failure = assertThrows(ExecutionException.class, victimWait::get);
+            assertTrue(failure.getCause() instanceof DeadlockDetectedException, failure.toString());
+
+            victim.close();
+            survivorWait.get(10, TimeUnit.SECONDS);
+            assertEquals(2, survivor.activeLocks().count());
+            survivor.close();
+        } finally {
+            locks.close();
+        }
+    }
+
+    @Test
+    @Timeout(30)
+    void sharedHoldersDoNotDeadlock() throws Exception {
+        StripedLocks locks = new StripedLocks(Config.defaults());
+        try {
+            Locks.Client first = locks.newClient();
+            Locks.Client second = locks.newClient();
+            first.acquireShared(LockTracer.NONE, ResourceTypes.NODE, 1);
+            second.acquireShared(LockTracer.NONE, ResourceTypes.NODE, 1);
+            first.acquireExclusive(LockTracer.NONE, ResourceTypes.NODE, 2);
+
+            // second waits for first on node 2, first holds node 1 compatibly with second
+            CompletableFuture<Void> waiting = CompletableFuture.runAsync(
+                    () -> second.acquireShared(LockTracer.NONE, ResourceTypes.NODE, 2));
+            first.acquireShared(LockTracer.NONE, ResourceTypes.NODE, 1);
+            first.close();
+            waiting.get(10, TimeUnit.SECONDS);
+            second.close();
+        } finally {
+            locks.close();
+        }
+    }
+}
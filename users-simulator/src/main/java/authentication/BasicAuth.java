@@ -1,10 +1,15 @@
 package authentication;
 
 import org.neo4j.driver.AuthTokens;
+import org.neo4j.driver.Config;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.GraphDatabase;
 
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author weat0212@gmail.com
@@ -12,20 +17,50 @@ import java.util.Scanner;
  * @package authentication
  * @date 2020/8/28 下午 05:22
  */
+
+/**
+ * Creates drivers, and holds the process-wide driver every transaction class
+ * shares. Uri, credentials and connection pool settings come from
+ * neo4j.properties on the classpath, overridden by system properties of the
+ * same name (e.g. -Dneo4j.password=secret). With neo4j.backend=embedded the
+ * shared driver connects to an EmbeddedServer started with it instead of
+ * neo4j.uri.
+ */
 public class BasicAuth implements AutoCloseable{
+
+    private static final String DEFAULTS = "/neo4j.properties";
+
+    /* The shared driver is created on first use, with the configuration at that time */
+    private static Properties sharedConfig;
+    private static Driver sharedDriver;
+    private static EmbeddedServer embeddedServer;
+
     private final Driver driver;
 
+    /**
+     * @param uri: database uri, the credentials are read from the configuration
+     */
     public BasicAuth(String uri){
-        System.out.print("Password:");
-        Scanner scn = new Scanner(System.in);
-        String password = scn.nextLine();
-        driver = new <Driver>BasicAuth("neo4j://localhost:7687","neo4j", password).getDriver();
+        this(uri, loadConfig());
+    }
+
+    private BasicAuth(String uri, Properties config){
+        this(uri, config.getProperty("neo4j.user"), config.getProperty("neo4j.password"));
     }
 
     public BasicAuth(String uri, String user, String password){
         driver = GraphDatabase.driver(uri, AuthTokens.basic(user, password));
     }
 
+    /**
+     * @param config: neo4j.* settings, including the connection pool ones
+     */
+    public BasicAuth(Properties config){
+        driver = GraphDatabase.driver(config.getProperty("neo4j.uri"),
+                AuthTokens.basic(config.getProperty("neo4j.user"), config.getProperty("neo4j.password")),
+                driverConfig(config));
+    }
+
     @Override
     public void close() throws Exception {
         driver.close();
@@ -34,4 +69,115 @@ public class BasicAuth implements AutoCloseable{
     public Driver getDriver(){
         return driver;
     }
+
+    /**
+     * @return the process-wide driver, created on first use
+     */
+    public static synchronized Driver sharedDriver(){
+        if (sharedDriver == null) {
+            if (sharedConfig == null) { sharedConfig = loadConfig(); }
+            if (embedded(sharedConfig)) {
+                embeddedServer = new EmbeddedServer(sharedConfig);
+            }
+            sharedDriver = new BasicAuth(effectiveConfig()).getDriver();
+        }
+        return sharedDriver;
+    }
+
+    /**
+     * @return a copy of the settings of the shared driver, with the uri of
+     * the embedded server if there is one; loads the settings, or starts the
+     * embedded server, if needed
+     */
+    public static synchronized Properties sharedConfig(){
+        if (sharedConfig == null || (embeddedServer == null && embedded(sharedConfig))) { sharedDriver(); }
+        return effectiveConfig();
+    }
+
+    /* A copy of sharedConfig, pointing at the embedded server if there is one */
+    private static Properties effectiveConfig(){
+        Properties config = new Properties();
+        config.putAll(sharedConfig);
+        if (embeddedServer != null) { config.setProperty("neo4j.uri", embeddedServer.getUri()); }
+        return config;
+    }
+
+    private static boolean embedded(Properties config){
+        return "embedded".equals(config.getProperty("neo4j.backend", "remote").trim());
+    }
+
+    /**
+     * Close the shared driver, if it was created, and the embedded server
+     * started with it. The driver's I/O threads keep the JVM alive, so a
+     * main that used it has to call this at the end.
+     */
+    public static synchronized void closeSharedDriver(){
+        if (sharedDriver != null) {
+            sharedDriver.close();
+            sharedDriver = null;
+        }
+        if (embeddedServer != null) {
+            embeddedServer.close();
+            embeddedServer = null;
+        }
+    }
+
+    /**
+     * Replace the configuration of the shared driver. A shared driver that
+     * already exists is closed and the next sharedDriver() creates a new one.
+     * @param overrides: neo4j.* settings that take precedence over neo4j.properties
+     */
+    public static synchronized void configure(Properties overrides){
+        Properties config = new Properties();
+        config.putAll(loadConfig(false));
+        for (String name : overrides.stringPropertyNames()) {
+            if (name.startsWith("neo4j.")) { config.setProperty(name, overrides.getProperty(name)); }
+        }
+        overrideWithSystemProperties(config);
+        closeSharedDriver();
+        sharedConfig = config;
+    }
+
+    /**
+     * @return neo4j.properties overridden by system properties
+     */
+    public static Properties loadConfig(){
+        return loadConfig(true);
+    }
+
+    private static Properties loadConfig(boolean withSystemProperties){
+        Properties config = new Properties();
+        try (InputStream in = BasicAuth.class.getResourceAsStream(DEFAULTS)) {
+            if (in != null) { config.load(in); }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (withSystemProperties) { overrideWithSystemProperties(config); }
+        return config;
+    }
+
+    private static void overrideWithSystemProperties(Properties config){
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("neo4j.")) { config.setProperty(name, System.getProperty(name)); }
+        }
+    }
+
+    private static Config driverConfig(Properties config){
+        Config.ConfigBuilder builder = Config.builder();
+        if (Boolean.parseBoolean(config.getProperty("neo4j.metrics", "false").trim())) {
+            builder.withDriverMetrics();
+        }
+        return builder
+                .withMaxConnectionPoolSize(Integer.parseInt(config.getProperty("neo4j.pool.size", "100").trim()))
+                .withConnectionAcquisitionTimeout(
+                        Long.parseLong(config.getProperty("neo4j.pool.acquisition_timeout.ms", "60000").trim()),
+                        TimeUnit.MILLISECONDS)
+                .withMaxConnectionLifetime(
+                        Long.parseLong(config.getProperty("neo4j.pool.max_lifetime.ms", "3600000").trim()),
+                        TimeUnit.MILLISECONDS)
+                .withMaxTransactionRetryTime(
+                        Long.parseLong(config.getProperty("neo4j.max_retry_time.ms", "30000").trim()),
+                        TimeUnit.MILLISECONDS)
+                .build();
+    }
 }
@@ -0,0 +1,103 @@
+package authentication;
+
+import capture.TraceCapture;
+import org.neo4j.configuration.GraphDatabaseInternalSettings;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilder;
+import org.neo4j.harness.Neo4jBuilders;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package authentication
+ * @date 2026/10/19 下午 11:55
+ */
+
+/**
+ * An in-process Neo4j (neo4j-harness) for neo4j.backend=embedded, so the
+ * simulator and the benchmarks run without a database server. Bolt
+ * listens on a free local port, HTTP is off and authentication is
+ * disabled, so any credentials are accepted. Settings:
+ * <ul>
+ *     <li>neo4j.embedded.directory: working directory, a temporary one if empty</li>
+ *     <li>neo4j.embedded.fixture: Cypher file run once at start</li>
+ *     <li>neo4j.embedded.pagecache: page cache size, e.g. 512m</li>
+ *     <li>neo4j.embedded.lock_timeout.ms: lock acquisition timeout, 0 for none</li>
+ *     <li>neo4j.embedded.lock_manager: the LocksFactory by name, e.g.
+ *     striped for lockmanager.StripedLocks; Neo4j's default if empty</li>
+ *     <li>neo4j.embedded.capture.file: record the committed transactions of
+ *     the default database into this trace file (capture.TraceCapture), a
+ *     BinaryTrace if it ends with .bin; no recording if empty</li>
+ *     <li>neo4j.embedded.capture.order, .capacity, .value_property: the
+ *     Initialize(m) of the trace, the size of the capture ring, and the
+ *     property whose value is recorded</li>
+ * </ul>
+ */
+public class EmbeddedServer implements AutoCloseable {
+
+    private final Neo4j neo4j;
+    private TraceCapture capture;
+
+    /**
+     * Start the server.
+     * @param config: neo4j.embedded.* settings
+     */
+    public EmbeddedServer(Properties config) {
+        String directory = config.getProperty("neo4j.embedded.directory", "").trim();
+        Neo4jBuilder builder = directory.isEmpty() ?
+                Neo4jBuilders.newInProcessBuilder() : Neo4jBuilders.newInProcessBuilder(new File(directory));
+        builder.withDisabledServer();
+        String fixture = config.getProperty("neo4j.embedded.fixture", "").trim();
+        if (!fixture.isEmpty()) { builder.withFixture(new File(fixture)); }
+        String pageCache = config.getProperty("neo4j.embedded.pagecache", "").trim();
+        if (!pageCache.isEmpty()) { builder.withConfig(GraphDatabaseSettings.pagecache_memory, pageCache); }
+        long lockTimeout = Long.parseLong(config.getProperty("neo4j.embedded.lock_timeout.ms", "0").trim());
+        builder.withConfig(GraphDatabaseSettings.lock_acquisition_timeout, Duration.ofMillis(lockTimeout));
+        String lockManager = config.getProperty("neo4j.embedded.lock_manager", "").trim();
+        if (!lockManager.isEmpty()) { builder.withConfig(GraphDatabaseInternalSettings.lock_manager, lockManager); }
+        this.neo4j = builder.build();
+
+        String captureFile = config.getProperty("neo4j.embedded.capture.file", "").trim();
+        if (!captureFile.isEmpty()) {
+            try {
+                capture = TraceCapture.start(neo4j.databaseManagementService(),
+                        GraphDatabaseSettings.DEFAULT_DATABASE_NAME, Paths.get(captureFile), captureFile.endsWith(".bin"),
+                        Integer.parseInt(config.getProperty("neo4j.embedded.capture.order", "64").trim()),
+                        Integer.parseInt(config.getProperty("neo4j.embedded.capture.capacity", "1048576").trim()),
+                        config.getProperty("neo4j.embedded.capture.value_property", "updates").trim());
+            } catch (IOException e) {
+                neo4j.close();
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @return the bolt uri the driver connects to
+     */
+    public String getUri() {
+        return neo4j.boltURI().toString();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (capture != null) {
+                capture.close();
+                capture.report(System.out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            neo4j.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package simulator;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 08:02
+ */
+
+/**
+ * Intended start times of an open-loop run at a target rate, either at a
+ * fixed interval or as a Poisson process (exponential inter-arrival times).
+ * The schedule does not depend on how fast the operations complete.
+ */
+public class ArrivalSchedule {
+
+    public enum Arrival { FIXED, POISSON }
+
+    private final Arrival arrival;
+    private final double intervalNanos;
+    private final Random random;
+    private double next;
+
+    /**
+     * @param ratePerSecond: target number of operations per second, over all users
+     * @param arrival: distribution of the inter-arrival times
+     * @param seed: seed of the Poisson process
+     */
+    public ArrivalSchedule(double ratePerSecond, Arrival arrival, long seed) {
+        if (ratePerSecond <= 0) { throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond); }
+        this.arrival = arrival;
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @return the intended start of the next operation, in nanoseconds
+     * since the start of the run
+     */
+    public synchronized long next() {
+        long start = (long) next;
+        next += (arrival == Arrival.FIXED) ? intervalNanos : -Math.log(1 - random.nextDouble()) * intervalNanos;
+        return start;
+    }
+}
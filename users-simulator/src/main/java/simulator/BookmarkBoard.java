@@ -0,0 +1,55 @@
+package simulator;
+
+import org.neo4j.driver.Bookmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 10:10
+ */
+
+/**
+ * The most recent bookmarks published by all users, so that a read can
+ * depend on the writes of other users as well as on its own (bookmark
+ * fan-in). Writers overwrite the oldest slot of a fixed ring.
+ */
+public class BookmarkBoard {
+
+    private final AtomicReferenceArray<Bookmark> ring;
+    private final AtomicLong published = new AtomicLong();
+
+    /**
+     * @param capacity: number of recent bookmarks kept
+     */
+    public BookmarkBoard(int capacity) {
+        this.ring = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public void publish(Bookmark bookmark) {
+        ring.set((int) (published.getAndIncrement() % ring.length()), bookmark);
+    }
+
+    /**
+     * @param own: the bookmark of the reader's own write, always included
+     * @param fanIn: total number of bookmarks to return, at least 1
+     * @param random: random source of the reader
+     * @return own plus up to fanIn - 1 other recent bookmarks
+     */
+    public List<Bookmark> dependencies(Bookmark own, int fanIn, Random random) {
+        List<Bookmark> bookmarks = new ArrayList<>(fanIn);
+        bookmarks.add(own);
+        int available = (int) Math.min(published.get(), ring.length());
+        for (int i = 1; i < fanIn && available > 0; i++) {
+            Bookmark other = ring.get(random.nextInt(available));
+            if (other != null && other != own) { bookmarks.add(other); }
+        }
+        return bookmarks;
+    }
+}
@@ -0,0 +1,111 @@
+package simulator;
+
+import authentication.BasicAuth;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.neo4j.driver.Bookmark;
+import transactions.CausalReads;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 10:20
+ */
+
+/**
+ * Cost of causal consistency: concurrent users each write a person, then
+ * read it back twice in new sessions, once with bookmarks (their own plus
+ * fan-in - 1 recent ones of other users) and once without. The order of
+ * the two reads alternates so neither always profits from the other having
+ * waited. Reports both read latencies, the difference of their percentiles,
+ * and how many unbookmarked reads missed their own write.
+ * <pre>
+ *     java -Dsimulator.bookmark.fan_ins=1,4,16 simulator.CausalBenchmark [simulator.properties]
+ * </pre>
+ */
+public class CausalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.load(args);
+        BasicAuth.configure(config.getProperties());
+        CausalReads causalReads = new CausalReads(BasicAuth.sharedDriver());
+        int users = config.users();
+        long durationNanos = config.getLong("simulator.bookmark.seconds", 10) * 1_000_000_000L;
+
+        System.out.printf("%d users, %d s per fan-in%n", users, durationNanos / 1_000_000_000L);
+        System.out.printf("%6s %8s %-12s %10s %10s %10s %10s %8s%n",
+                "fan-in", "reads", "read", "mean ms", "p50 ms", "p99 ms", "max ms", "stale");
+        for (String value : config.get("simulator.bookmark.fan_ins", "1,4,16").split(",")) {
+            int fanIn = Integer.parseInt(value.trim());
+            BookmarkBoard board = new BookmarkBoard(users * 4);
+            Histogram bookmarked = new ConcurrentHistogram(3);
+            Histogram unbookmarked = new ConcurrentHistogram(3);
+            LongAdder stale = new LongAdder();
+            LongAdder errors = new LongAdder();
+
+            ExecutorService executor = Executors.newFixedThreadPool(users);
+            CountDownLatch finished = new CountDownLatch(users);
+            long deadline = System.nanoTime() + durationNanos;
+            Random seeds = new Random(deadline);
+            for (int id = 0; id < users; id++) {
+                VirtualUser user = new VirtualUser(id, seeds.nextLong());
+                executor.execute(() -> {
+                    try {
+                        while (System.nanoTime() - deadline < 0) {
+                            try {
+                                String name = "causal-" + fanIn + "-" + user.nextPerson();
+                                Bookmark own = causalReads.write(name);
+                                board.publish(own);
+                                List<Bookmark> bookmarks = board.dependencies(own, fanIn, user.random);
+                                if (user.random.nextBoolean()) {
+                                    timeRead(causalReads, name, bookmarks, bookmarked);
+                                    if (!timeRead(causalReads, name, Collections.emptyList(), unbookmarked)) { stale.increment(); }
+                                } else {
+                                    if (!timeRead(causalReads, name, Collections.emptyList(), unbookmarked)) { stale.increment(); }
+                                    timeRead(causalReads, name, bookmarks, bookmarked);
+                                }
+                            } catch (RuntimeException e) {
+                                errors.increment();
+                            }
+                        }
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            finished.await();
+            executor.shutdown();
+
+            print(fanIn, "bookmarked", bookmarked, "");
+            print(fanIn, "unbookmarked", unbookmarked, String.valueOf(stale.sum()));
+            System.out.printf("%6d %8s %-12s %10.3f %10.3f %10.3f %10s %8s%n", fanIn, "", "extra",
+                    (bookmarked.getMean() - unbookmarked.getMean()) / 1e6,
+                    (bookmarked.getValueAtPercentile(50) - unbookmarked.getValueAtPercentile(50)) / 1e6,
+                    (bookmarked.getValueAtPercentile(99) - unbookmarked.getValueAtPercentile(99)) / 1e6,
+                    "", errors.sum() > 0 ? errors.sum() + " errors" : "");
+        }
+        BasicAuth.closeSharedDriver();
+    }
+
+    private static boolean timeRead(CausalReads causalReads, String name, List<Bookmark> bookmarks, Histogram latencies) {
+        long start = System.nanoTime();
+        boolean found = causalReads.read(name, bookmarks);
+        latencies.recordValue(System.nanoTime() - start);
+        return found;
+    }
+
+    private static void print(int fanIn, String read, Histogram latencies, String stale) {
+        System.out.printf("%6d %8d %-12s %10.3f %10.3f %10.3f %10.3f %8s%n", fanIn, latencies.getTotalCount(), read,
+                latencies.getMean() / 1e6, latencies.getValueAtPercentile(50) / 1e6,
+                latencies.getValueAtPercentile(99) / 1e6, latencies.getMaxValue() / 1e6, stale);
+    }
+}
@@ -0,0 +1,63 @@
+package simulator;
+
+import authentication.BasicAuth;
+import org.neo4j.driver.Driver;
+import transactions.ConsumingResults;
+
+import java.util.Properties;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 08:40
+ */
+
+/**
+ * Per-call latency of ConsumingResults.getPeople with a new driver for every
+ * call (connection, Bolt handshake and authentication each time, as the
+ * transaction classes used to do) against the shared, pooled driver.
+ * <pre>
+ *     java -Dsimulator.benchmark.calls=500 simulator.DriverBenchmark [simulator.properties]
+ * </pre>
+ */
+public class DriverBenchmark {
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.load(args);
+        BasicAuth.configure(config.getProperties());
+        Properties neo4j = BasicAuth.sharedConfig();
+        int calls = config.getInt("simulator.benchmark.calls", 200);
+        int warmup = config.getInt("simulator.benchmark.warmup", 20);
+
+        LatencyStats perCall = new LatencyStats();
+        long begin = System.nanoTime();
+        for (int i = -warmup; i < calls; i++) {
+            long start = System.nanoTime();
+            try (BasicAuth auth = new BasicAuth(neo4j.getProperty("neo4j.uri"),
+                    neo4j.getProperty("neo4j.user"), neo4j.getProperty("neo4j.password"))) {
+                new ConsumingResults(auth.getDriver()).getPeople();
+            }
+            if (i >= 0) { perCall.record(Operation.GET_PEOPLE, System.nanoTime() - start); }
+            else { begin = System.nanoTime(); }
+        }
+        perCall.setElapsedNanos(System.nanoTime() - begin);
+
+        LatencyStats shared = new LatencyStats();
+        Driver driver = BasicAuth.sharedDriver();
+        ConsumingResults consumingResults = new ConsumingResults(driver);
+        begin = System.nanoTime();
+        for (int i = -warmup; i < calls; i++) {
+            long start = System.nanoTime();
+            consumingResults.getPeople();
+            if (i >= 0) { shared.record(Operation.GET_PEOPLE, System.nanoTime() - start); }
+            else { begin = System.nanoTime(); }
+        }
+        shared.setElapsedNanos(System.nanoTime() - begin);
+
+        System.out.println("New driver per call (ms)");
+        perCall.report(System.out);
+        System.out.println("Shared pooled driver (ms)");
+        shared.report(System.out);
+        BasicAuth.closeSharedDriver();
+    }
+}
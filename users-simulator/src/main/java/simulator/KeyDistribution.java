@@ -0,0 +1,243 @@
+package simulator;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 10:40
+ */
+
+/**
+ * Chooses which of the keys "key-0" ... "key-(n-1)" an operation touches,
+ * so the contention profile can range from spread out to a few hot keys:
+ * <ul>
+ *     <li>uniform: every key equally likely</li>
+ *     <li>zipfian: key i with probability proportional to 1 / (i+1)^theta,
+ *     so key-0 is the hottest (0 &lt; theta &lt; 1, 0.99 as in YCSB)</li>
+ *     <li>hotspot: a fraction of the operations on a fraction of the keys,
+ *     the rest uniform over the other keys</li>
+ *     <li>latest: zipfian over the most recently inserted keys</li>
+ * </ul>
+ * insertKey operations add keys at the end, so n grows during the run. A
+ * new key only counts once its insert is done, so next() never returns a
+ * key whose person was not created yet.
+ */
+public abstract class KeyDistribution {
+
+    public static final String PREFIX = "key-";
+
+    private final AtomicLong count;
+    private final AtomicLong nextKey;
+    /* Keys that were inserted while an earlier new key was not yet */
+    private final ConcurrentSkipListSet<Long> insertedAhead = new ConcurrentSkipListSet<>();
+
+    KeyDistribution(long count) {
+        if (count < 1) { throw new IllegalArgumentException("Need at least one key: " + count); }
+        this.count = new AtomicLong(count);
+        this.nextKey = new AtomicLong(count);
+    }
+
+    /**
+     * @param config: simulator.keys, simulator.key.distribution and the settings of the distribution
+     * @return the configured distribution
+     */
+    public static KeyDistribution of(SimulatorConfig config) {
+        long keys = config.getLong("simulator.keys", 1000);
+        String name = config.get("simulator.key.distribution", "uniform");
+        switch (name) {
+            case "uniform":
+                return new Uniform(keys);
+            case "zipfian":
+                return new Zipfian(keys, config.getDouble("simulator.key.zipfian.theta", 0.99));
+            case "hotspot":
+                return new Hotspot(keys, config.getDouble("simulator.key.hotspot.keys", 0.01),
+                        config.getDouble("simulator.key.hotspot.operations", 0.9));
+            case "latest":
+                return new Latest(keys, config.getDouble("simulator.key.zipfian.theta", 0.99));
+            default:
+                throw new IllegalArgumentException("Unknown key distribution: " + name);
+        }
+    }
+
+    /**
+     * @param random: random source of the calling user
+     * @return index of an existing key
+     */
+    public abstract long next(Random random);
+
+    /**
+     * @return index of a new key, at the end of the key space; it counts
+     * once it is passed to inserted()
+     */
+    public long newKey() {
+        return nextKey.getAndIncrement();
+    }
+
+    /**
+     * Count a key of newKey() whose insert is done. Keys count in order, a
+     * key inserted before an earlier new key waits for it.
+     * @param key: a key of newKey()
+     */
+    public void inserted(long key) {
+        insertedAhead.add(key);
+        synchronized (insertedAhead) {
+            long n = count.get();
+            while (insertedAhead.remove(n)) {
+                n++;
+            }
+            count.set(n);
+        }
+    }
+
+    /**
+     * @return number of keys, including the inserted ones
+     */
+    public long count() {
+        return count.get();
+    }
+
+    public static String name(long key) {
+        return PREFIX + key;
+    }
+
+    static final class Uniform extends KeyDistribution {
+
+        Uniform(long count) {
+            super(count);
+        }
+
+        @Override
+        public long next(Random random) {
+            return (long) (random.nextDouble() * count());
+        }
+
+        @Override
+        public String toString() {
+            return "uniform over " + count() + " keys";
+        }
+    }
+
+    /*
+     * Gray et al., "Quickly generating billion-record synthetic databases".
+     * zeta(n) is extended incrementally when keys are inserted.
+     */
+    static class Zipfian extends KeyDistribution {
+
+        private final double theta;
+        private final double zeta2;
+        private final double alpha;
+        private volatile Zeta zeta = new Zeta(0, 0);
+
+        Zipfian(long count, double theta) {
+            super(count);
+            if (!(theta > 0 && theta < 1)) { throw new IllegalArgumentException("Zipfian theta must be in (0, 1): " + theta); }
+            this.theta = theta;
+            this.zeta2 = 1 + Math.pow(0.5, theta);
+            this.alpha = 1 / (1 - theta);
+            zeta(count);
+        }
+
+        @Override
+        public long next(Random random) {
+            return rank(random, count());
+        }
+
+        /* Rank in [0, n), 0 being the most frequent */
+        final long rank(Random random, long n) {
+            Zeta cached = this.zeta;
+            double zeta = (cached.count >= n) ? cached.value : zeta(n);
+            double u = random.nextDouble();
+            double uz = u * zeta;
+            if (uz < 1) { return 0; }
+            if (uz < zeta2 && n > 1) { return 1; }
+            double eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / zeta);
+            return Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+        }
+
+        /* Extends zeta up to n, only called once n grew past the cached count;
+           a caller whose n lags behind that count uses the larger zeta */
+        private synchronized double zeta(long n) {
+            Zeta cached = this.zeta;
+            if (cached.count < n) {
+                double value = cached.value;
+                for (long i = cached.count + 1; i <= n; i++) {
+                    value += 1 / Math.pow(i, theta);
+                }
+                cached = new Zeta(n, value);
+                this.zeta = cached;
+            }
+            return cached.value;
+        }
+
+        @Override
+        public String toString() {
+            return "zipfian theta " + theta + " over " + count() + " keys";
+        }
+    }
+
+    /* zeta(count) = sum of 1 / i^theta for i = 1 ... count */
+    private static final class Zeta {
+
+        final long count;
+        final double value;
+
+        Zeta(long count, double value) {
+            this.count = count;
+            this.value = value;
+        }
+    }
+
+    static final class Latest extends Zipfian {
+
+        Latest(long count, double theta) {
+            super(count, theta);
+        }
+
+        @Override
+        public long next(Random random) {
+            long n = count();
+            return n - 1 - rank(random, n);
+        }
+
+        @Override
+        public String toString() {
+            return "latest, " + super.toString();
+        }
+    }
+
+    static final class Hotspot extends KeyDistribution {
+
+        private final double hotKeys;
+        private final double hotOperations;
+
+        /**
+         * @param hotKeys: fraction of the keys that are hot
+         * @param hotOperations: fraction of the operations on the hot keys
+         */
+        Hotspot(long count, double hotKeys, double hotOperations) {
+            super(count);
+            this.hotKeys = hotKeys;
+            this.hotOperations = hotOperations;
+        }
+
+        @Override
+        public long next(Random random) {
+            long n = count();
+            long hot = Math.max(1, Math.min(n, (long) (n * hotKeys)));
+            if (hot == n || random.nextDouble() < hotOperations) {
+                return (long) (random.nextDouble() * hot);
+            }
+            return hot + (long) (random.nextDouble() * (n - hot));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hotspot %.1f%% of operations on %.1f%% of %d keys",
+                    hotOperations * 100, hotKeys * 100, count());
+        }
+    }
+}
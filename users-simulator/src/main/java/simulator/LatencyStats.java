@@ -0,0 +1,98 @@
+package simulator;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:28
+ */
+
+/**
+ * Latency histograms (in nanoseconds) and error counts per operation,
+ * recorded by all virtual users concurrently.
+ */
+public class LatencyStats {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, String> firstErrors = new ConcurrentHashMap<>();
+    private long elapsedNanos;
+
+    public LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(Operation operation, long latencyNanos) {
+        latencies.get(operation).recordValue(latencyNanos);
+    }
+
+    public void error(Operation operation, Exception e) {
+        errors.get(operation).increment();
+        firstErrors.putIfAbsent(operation, e.toString());
+    }
+
+    public Histogram getLatencies(Operation operation) {
+        return latencies.get(operation);
+    }
+
+    public long getErrors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Print throughput and latency percentiles (in milliseconds) per
+     * operation and for all operations together.
+     * @param out: where the report is printed
+     */
+    public void report(PrintStream out) {
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf("%-14s %9s %7s %10s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "mean", "p50", "p90", "p99", "p99.9", "max");
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = latencies.get(operation);
+            long errorCount = getErrors(operation);
+            if (histogram.getTotalCount() == 0 && errorCount == 0) { continue; }
+            total.add(histogram);
+            totalErrors += errorCount;
+            row(out, operation.getKey(), histogram, errorCount, seconds);
+        }
+        row(out, "total", total, totalErrors, seconds);
+        out.printf("elapsed %.1f s%n", seconds);
+        firstErrors.forEach((operation, error) ->
+                out.printf("first %s error: %s%n", operation.getKey(), error));
+    }
+
+    private static void row(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+        out.printf("%-14s %9d %7d %10.1f %9.3f", name, histogram.getTotalCount(), errors,
+                histogram.getTotalCount() / seconds, histogram.getMean() / 1e6);
+        for (double percentile : PERCENTILES) {
+            out.printf(" %9.3f", histogram.getValueAtPercentile(percentile) / 1e6);
+        }
+        out.printf(" %9.3f%n", histogram.getMaxValue() / 1e6);
+    }
+}
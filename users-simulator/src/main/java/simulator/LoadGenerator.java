@@ -0,0 +1,216 @@
+package simulator;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:35
+ */
+
+/**
+ * Runs the operation mix with the virtual users until the duration is over
+ * or the operation budget is used up, in one of two modes:
+ * <ul>
+ *     <li>closed loop: every user runs one operation after the other, so a
+ *     slow response also delays the following requests</li>
+ *     <li>open loop: operations start at the times of an ArrivalSchedule,
+ *     whatever the response times are; the users only bound how many run
+ *     at once. Latency is measured from the intended start, so time spent
+ *     waiting for a free user counts (no coordinated omission), and the
+ *     service time from the actual start is recorded separately</li>
+ * </ul>
+ * The users run on one of three executors:
+ * <ul>
+ *     <li>platform: a platform thread per user</li>
+ *     <li>virtual: a virtual thread per user, for tens of thousands of users
+ *     on the blocking Session API</li>
+ *     <li>pool: a bounded pool of platform threads; each user step is a
+ *     task, so users wait for a free thread and closed-loop latency is
+ *     measured from the moment the user was ready</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+    public enum Mode { CLOSED, OPEN }
+
+    public enum Executor { PLATFORM, VIRTUAL, POOL }
+
+    private final Workload workload;
+    private final OperationMix mix;
+    private final int users;
+    private final long durationNanos;
+    private final long operations;
+    private final Mode mode;
+    private final double rate;
+    private final ArrivalSchedule.Arrival arrival;
+    private final Executor executorType;
+    private final int poolSize;
+
+    private final LatencyStats serviceTimes = new LatencyStats();
+
+    /* State of the current run */
+    private LatencyStats stats;
+    private AtomicLong remaining;
+    private ArrivalSchedule schedule;
+    private long begin;
+    private long deadline;
+    private CountDownLatch finished;
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+
+    public LoadGenerator(SimulatorConfig config, Workload workload) {
+        this.workload = workload;
+        this.mix = config.mix();
+        this.users = config.users();
+        this.durationNanos = config.duration().toNanos();
+        this.operations = config.operations();
+        this.mode = Mode.valueOf(config.get("simulator.mode", "closed").toUpperCase());
+        this.rate = config.getDouble("simulator.rate", 100);
+        this.arrival = ArrivalSchedule.Arrival.valueOf(config.get("simulator.arrival", "poisson").toUpperCase());
+        this.executorType = Executor.valueOf(config.get("simulator.executor", "platform").toUpperCase());
+        this.poolSize = config.getInt("simulator.pool.size", Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Run the simulation and wait for every user to finish.
+     * @return the latencies of the run, from the intended start in open loop
+     */
+    public LatencyStats run() throws InterruptedException {
+        stats = new LatencyStats();
+        remaining = new AtomicLong(operations > 0 ? operations : Long.MAX_VALUE);
+        schedule = new ArrivalSchedule(rate, arrival, System.nanoTime());
+        finished = new CountDownLatch(users);
+        executor = newExecutor();
+        timer = (executorType == Executor.POOL && mode == Mode.OPEN) ?
+                Executors.newSingleThreadScheduledExecutor() : null;
+        CountDownLatch start = new CountDownLatch(1);
+
+        begin = System.nanoTime();
+        deadline = operations > 0 ? Long.MAX_VALUE : begin + durationNanos;
+
+        /* Nearby seeds give correlated first draws, so every user gets a seed from one source */
+        Random seeds = new Random(begin);
+        for (int id = 0; id < users; id++) {
+            VirtualUser user = new VirtualUser(id, seeds.nextLong());
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    finished.countDown();
+                    return;
+                }
+                if (executorType != Executor.POOL) {
+                    runToEnd(user);
+                } else if (mode == Mode.CLOSED) {
+                    closedStep(user, begin);
+                } else {
+                    openStep(user);
+                }
+            });
+        }
+        start.countDown();
+        finished.await();
+        executor.shutdown();
+        if (timer != null) { timer.shutdown(); }
+        stats.setElapsedNanos(System.nanoTime() - begin);
+        serviceTimes.setElapsedNanos(System.nanoTime() - begin);
+        return stats;
+    }
+
+    /**
+     * @return the service times of the last open-loop run, measured from
+     * the actual start of every operation
+     */
+    public LatencyStats getServiceTimes() {
+        return serviceTimes;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public Executor getExecutor() {
+        return executorType;
+    }
+
+    private ExecutorService newExecutor() {
+        switch (executorType) {
+            case VIRTUAL:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            case POOL:
+                return Executors.newFixedThreadPool(poolSize);
+            default:
+                return Executors.newFixedThreadPool(users);
+        }
+    }
+
+    /* A user that has a thread of its own runs its whole loop on it */
+    private void runToEnd(VirtualUser user) {
+        if (mode == Mode.CLOSED) {
+            while (System.nanoTime() - deadline < 0 && remaining.getAndDecrement() > 0) {
+                execute(user, System.nanoTime());
+            }
+        } else {
+            long intendedStart;
+            while ((intendedStart = begin + schedule.next()) - deadline < 0
+                    && remaining.getAndDecrement() > 0) {
+                waitUntil(intendedStart);
+                execute(user, intendedStart);
+            }
+        }
+        finished.countDown();
+    }
+
+    /* On the pool every operation is a task, and the next one is submitted when it is done */
+    private void closedStep(VirtualUser user, long ready) {
+        if (System.nanoTime() - deadline >= 0 || remaining.getAndDecrement() <= 0) {
+            finished.countDown();
+            return;
+        }
+        execute(user, ready);
+        long next = System.nanoTime();
+        executor.execute(() -> closedStep(user, next));
+    }
+
+    /* Waiting for the intended start does not hold a pool thread */
+    private void openStep(VirtualUser user) {
+        long intendedStart = begin + schedule.next();
+        if (intendedStart - deadline >= 0 || remaining.getAndDecrement() <= 0) {
+            finished.countDown();
+            return;
+        }
+        timer.schedule(() -> executor.execute(() -> {
+            execute(user, intendedStart);
+            openStep(user);
+        }), intendedStart - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private void execute(VirtualUser user, long intendedStart) {
+        Operation operation = mix.next(user.random);
+        long start = System.nanoTime();
+        try {
+            operation.execute(workload, user);
+            long end = System.nanoTime();
+            stats.record(operation, end - intendedStart);
+            if (mode == Mode.OPEN) { serviceTimes.record(operation, end - start); }
+        } catch (RuntimeException e) {
+            stats.error(operation, e);
+        }
+    }
+
+    private static void waitUntil(long time) {
+        long delay;
+        while ((delay = time - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package simulator;
+
+import authentication.BasicAuth;
+import org.HdrHistogram.Histogram;
+import transactions.TxStats;
+
+import java.util.Properties;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/20 下午 02:10
+ */
+
+/**
+ * Neo4j's own lock manager against lockmanager.StripedLocks: the same
+ * workload runs on a fresh embedded database (neo4j.backend=embedded) per
+ * lock manager in simulator.lock_managers, and each run prints the usual
+ * report followed by a table comparing throughput, latency percentiles,
+ * deadlocks and lock timeouts. The keyed writes contend the most:
+ * <pre>
+ *     java -Dsimulator.mix=updateKey=50,linkKeys=50 -Dsimulator.key.distribution=zipfian
+ *          simulator.LockManagerBenchmark [simulator.properties]
+ * </pre>
+ */
+public class LockManagerBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.load(args);
+        String[] lockManagers = config.get("simulator.lock_managers", "community,striped").split(",");
+        StringBuilder table = new StringBuilder(String.format("%-10s %9s %7s %10s %9s %9s %9s %9s %9s %9s%n",
+                "locks", "count", "errors", "ops/s", "p50 ms", "p99 ms", "max ms", "commits", "deadlock", "timeout"));
+
+        for (String value : lockManagers) {
+            String lockManager = value.trim();
+            Properties overrides = new Properties();
+            overrides.putAll(config.getProperties());
+            overrides.setProperty("neo4j.backend", "embedded");
+            overrides.setProperty("neo4j.embedded.lock_manager", lockManager);
+            BasicAuth.configure(overrides);
+            try {
+                Workload workload = new Workload(BasicAuth.sharedDriver(), config);
+                LoadGenerator generator = new LoadGenerator(config, workload);
+                System.out.printf("%s locks: %d users, mix %s%n", lockManager, config.users(), config.mix());
+                workload.createIndexes(config.mix());
+                workload.createKeys(config.mix());
+                LatencyStats stats = generator.run();
+                stats.report(System.out);
+                workload.txStats.report(System.out);
+                table.append(row(lockManager, stats, workload.txStats));
+            } finally {
+                BasicAuth.closeSharedDriver();
+            }
+        }
+        System.out.print(table);
+    }
+
+    private static String row(String lockManager, LatencyStats stats, TxStats txStats) {
+        Histogram total = new Histogram(3);
+        long errors = 0;
+        for (Operation operation : Operation.values()) {
+            total.add(stats.getLatencies(operation));
+            errors += stats.getErrors(operation);
+        }
+        double seconds = stats.getElapsedNanos() / 1e9;
+        return String.format("%-10s %9d %7d %10.1f %9.3f %9.3f %9.3f %9d %9d %9d%n", lockManager,
+                total.getTotalCount(), errors, total.getTotalCount() / seconds,
+                total.getValueAtPercentile(50) / 1e6, total.getValueAtPercentile(99) / 1e6, total.getMaxValue() / 1e6,
+                txStats.getCommitted(), txStats.getFailures(TxStats.Cause.DEADLOCK),
+                txStats.getFailures(TxStats.Cause.LOCK_TIMEOUT));
+    }
+}
@@ -0,0 +1,143 @@
+package simulator;
+
+import org.neo4j.driver.Bookmark;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:12
+ */
+
+/**
+ * The transaction shapes a virtual user can execute, named as in
+ * simulator.mix.
+ */
+public enum Operation {
+
+    /* ReadWriteTx: create a person, then read it back */
+    ADD_PERSON("addPerson") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.readWriteTx.addPerson(user.nextPerson());
+        }
+    },
+
+    /* RetainResults: read every person, then one write transaction per person */
+    ADD_EMPLOYEES("addEmployees") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.retainResults.addEmployees(user.nextCompany());
+        }
+    },
+
+    /* RetainResults, batched: the same writes with UNWIND, in chunks over parallel sessions */
+    ADD_EMPLOYEES_BATCHED("addEmployeesBatched") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.retainResults.addEmployeesBatched(user.nextCompany(),
+                    workload.batchSize, workload.batchParallelism);
+        }
+    },
+
+    /* ConsumingResults: read every person name */
+    GET_PEOPLE("getPeople") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.consumingResults.getPeople();
+        }
+    },
+
+    /* ReactiveResults: stream every person name with backpressure */
+    GET_PEOPLE_REACTIVE("getPeopleReactive") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.reactiveResults.getPeople(name -> { }).toCompletableFuture().join();
+        }
+    },
+
+    /* PassingBookMarksEx: two write sessions, then a session chained on their bookmarks */
+    BOOKMARKS("bookmarks") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.passingBookMarks.addEmployAndMakeFriends(workload.driver,
+                    user.nextPerson(), user.nextCompany(), user.nextPerson(), user.nextCompany());
+        }
+    },
+
+    /* CausalReads: write a person, then read it in a new session chained on bookmark fan-in */
+    CAUSAL_READ("causalRead") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            String name = user.nextPerson();
+            Bookmark own = workload.causalReads.write(name);
+            workload.bookmarks.publish(own);
+            workload.causalReads.read(name, workload.bookmarks.dependencies(own, workload.bookmarkFanIn, user.random));
+        }
+    },
+
+    /* HotKeysTx: update a key chosen by the key distribution, then read it back */
+    UPDATE_KEY("updateKey") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.hotKeysTx.updateKey(KeyDistribution.name(workload.keys.next(user.random)));
+        }
+    },
+
+    /* HotKeysTx: update two keys in the order drawn and link them, then a bookmarked read */
+    LINK_KEYS("linkKeys") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            workload.hotKeysTx.linkKeys(KeyDistribution.name(workload.keys.next(user.random)),
+                    KeyDistribution.name(workload.keys.next(user.random)));
+        }
+    },
+
+    /* HotKeysTx: create a new key, the hottest one for the latest distribution once created */
+    INSERT_KEY("insertKey") {
+        @Override
+        void execute(Workload workload, VirtualUser user) {
+            long key = workload.keys.newKey();
+            try {
+                workload.hotKeysTx.insertKey(KeyDistribution.name(key));
+            } finally {
+
+                /* A failed insert still counts, or no later key would; updateKey tolerates the missing person */
+                workload.keys.inserted(key);
+            }
+        }
+    };
+
+    private final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    abstract void execute(Workload workload, VirtualUser user);
+
+    /**
+     * @return true if the operation works on the keys of the key distribution
+     */
+    boolean usesKeys() {
+        return this == UPDATE_KEY || this == LINK_KEYS || this == INSERT_KEY;
+    }
+
+    /**
+     * @return true if the operation looks up companies by name
+     */
+    boolean usesCompanies() {
+        return this == ADD_EMPLOYEES || this == ADD_EMPLOYEES_BATCHED || this == BOOKMARKS;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static Operation byKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) { return operation; }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,83 @@
+package simulator;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:16
+ */
+
+/**
+ * Weighted choice between operations, e.g. "addPerson=60,getPeople=40".
+ */
+public class OperationMix {
+
+    private final Operation[] operations;
+    private final double[] cumulativeWeights;
+
+    private OperationMix(Map<Operation, Double> weights) {
+        this.operations = new Operation[weights.size()];
+        this.cumulativeWeights = new double[weights.size()];
+        double total = 0;
+        int i = 0;
+        for (Map.Entry<Operation, Double> weight : weights.entrySet()) {
+            total += weight.getValue();
+            operations[i] = weight.getKey();
+            cumulativeWeights[i++] = total;
+        }
+        for (i = 0; i < cumulativeWeights.length; i++) {
+            cumulativeWeights[i] /= total;
+        }
+    }
+
+    /**
+     * @param mix: comma separated operation=weight pairs, weights need not add up to 100
+     * @return the mix
+     */
+    public static OperationMix parse(String mix) {
+        Map<Operation, Double> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            double weight = Double.parseDouble(pair[1].trim());
+            if (weight > 0) { weights.put(Operation.byKey(pair[0].trim()), weight); }
+        }
+        if (weights.isEmpty()) { throw new IllegalArgumentException("Empty operation mix: " + mix); }
+        return new OperationMix(weights);
+    }
+
+    public Operation next(Random random) {
+        double r = random.nextDouble();
+        for (int i = 0; i < operations.length - 1; i++) {
+            if (r < cumulativeWeights[i]) { return operations[i]; }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * @param operation: an operation
+     * @return true if the mix executes the operation
+     */
+    public boolean contains(Operation operation) {
+        for (Operation o : operations) {
+            if (o == operation) { return true; }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        double previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) { sb.append(','); }
+            sb.append(operations[i].getKey()).append('=')
+                    .append(Math.round((cumulativeWeights[i] - previous) * 1000) / 10.0).append('%');
+            previous = cumulativeWeights[i];
+        }
+        return sb.toString();
+    }
+}
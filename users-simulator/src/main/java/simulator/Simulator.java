@@ -0,0 +1,68 @@
+package simulator;
+
+import authentication.BasicAuth;
+import org.neo4j.driver.ConnectionPoolMetrics;
+import org.neo4j.driver.Driver;
+
+import java.io.PrintStream;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:40
+ */
+
+/**
+ * Runs N concurrent virtual users against the database and reports
+ * throughput and latency percentiles per transaction shape.
+ * <pre>
+ *     java -Dsimulator.users=64 simulator.Simulator [simulator.properties]
+ *     java -Dneo4j.backend=embedded simulator.Simulator    (in-process database)
+ * </pre>
+ */
+public class Simulator {
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.load(args);
+        BasicAuth.configure(config.getProperties());
+        Driver driver = BasicAuth.sharedDriver();
+        try {
+            Workload workload = new Workload(driver, config);
+            LoadGenerator generator = new LoadGenerator(config, workload);
+            System.out.printf("%d users on %s threads, mix %s%n", config.users(),
+                    generator.getExecutor().name().toLowerCase(), config.mix());
+            workload.createIndexes(config.mix());
+            if (workload.createKeys(config.mix())) {
+                System.out.printf("keys: %s%nretry: %s%n", workload.keys, workload.retryPolicy);
+            }
+
+            LatencyStats stats = generator.run();
+            if (generator.getMode() == LoadGenerator.Mode.OPEN) {
+                System.out.println("Response time, from the intended start (ms)");
+                stats.report(System.out);
+                System.out.println("Service time (ms)");
+                generator.getServiceTimes().report(System.out);
+            } else {
+                stats.report(System.out);
+            }
+            workload.txStats.report(System.out);
+            if (driver.isMetricsEnabled()) { reportPool(driver, System.out); }
+        } finally {
+            BasicAuth.closeSharedDriver();
+        }
+    }
+
+    /**
+     * Print how long the users waited for a connection of the driver's pool.
+     * @param driver: a driver created with neo4j.metrics=true
+     * @param out: stream to print to
+     */
+    static void reportPool(Driver driver, PrintStream out) {
+        for (ConnectionPoolMetrics pool : driver.metrics().connectionPoolMetrics()) {
+            out.printf("pool %s: %d acquired, %d timed out, mean acquisition %.3f ms, %d created, in use %d, idle %d%n",
+                    pool.id(), pool.acquired(), pool.timedOutToAcquire(),
+                    pool.acquired() == 0 ? 0.0 : (double) pool.totalAcquisitionTime() / pool.acquired(),
+                    pool.created(), pool.inUse(), pool.idle());
+        }
+    }
+}
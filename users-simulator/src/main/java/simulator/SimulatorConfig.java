@@ -0,0 +1,95 @@
+package simulator;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:05
+ */
+
+/**
+ * Settings of a simulation run. The defaults come from simulator.properties
+ * on the classpath, a properties file given as the first argument overrides
+ * them, and a system property of the same name overrides both. neo4j.*
+ * settings in the file are passed on to the shared driver of BasicAuth.
+ */
+public class SimulatorConfig {
+
+    private static final String DEFAULTS = "/simulator.properties";
+
+    private final Properties properties;
+
+    public SimulatorConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @param args: command line arguments, the first one may be a properties file
+     * @return the merged configuration
+     */
+    public static SimulatorConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream in = SimulatorConfig.class.getResourceAsStream(DEFAULTS)) {
+            if (in != null) { properties.load(in); }
+        }
+        if (args.length > 0) {
+            try (InputStream in = new FileInputStream(args[0])) {
+                properties.load(in);
+            }
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("simulator.") || name.startsWith("neo4j.")) {
+                properties.setProperty(name, System.getProperty(name));
+            }
+        }
+        return new SimulatorConfig(properties);
+    }
+
+    public String get(String name, String defaultValue) {
+        return properties.getProperty(name, defaultValue).trim();
+    }
+
+    public int getInt(String name, int defaultValue) {
+        return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+    }
+
+    public long getLong(String name, long defaultValue) {
+        return Long.parseLong(get(name, String.valueOf(defaultValue)));
+    }
+
+    public double getDouble(String name, double defaultValue) {
+        return Double.parseDouble(get(name, String.valueOf(defaultValue)));
+    }
+
+    /**
+     * @return every setting, including the neo4j.* ones of the shared driver
+     */
+    public Properties getProperties() {
+        return properties;
+    }
+
+    public int users() {
+        return getInt("simulator.users", 8);
+    }
+
+    public Duration duration() {
+        return Duration.ofSeconds(getLong("simulator.duration.seconds", 30));
+    }
+
+    /**
+     * @return number of operations to run, 0 to run for duration() instead
+     */
+    public long operations() {
+        return getLong("simulator.operations", 0);
+    }
+
+    public OperationMix mix() {
+        return OperationMix.parse(get("simulator.mix", "addPerson=1"));
+    }
+}
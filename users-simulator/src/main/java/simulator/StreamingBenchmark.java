@@ -0,0 +1,99 @@
+package simulator;
+
+import authentication.BasicAuth;
+import org.HdrHistogram.Histogram;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.async.AsyncSession;
+import transactions.ReactiveResults;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.neo4j.driver.Values.parameters;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 09:30
+ */
+
+/**
+ * Streams results of increasing size with the three session APIs:
+ * <ul>
+ *     <li>blocking: Session, collecting the names into a list as
+ *     ConsumingResults does</li>
+ *     <li>async: AsyncSession, consuming with forEachAsync</li>
+ *     <li>reactive: RxSession with backpressure (ReactiveResults)</li>
+ * </ul>
+ * and reports latency per call and records per second for each.
+ * <pre>
+ *     java -Dsimulator.stream.sizes=10,1000,100000 simulator.StreamingBenchmark [simulator.properties]
+ * </pre>
+ */
+public class StreamingBenchmark {
+
+    private static final String QUERY = "UNWIND range(1, $size) AS i RETURN 'person' + i AS name";
+
+    private enum Api { BLOCKING, ASYNC, REACTIVE }
+
+    public static void main(String[] args) throws Exception {
+        SimulatorConfig config = SimulatorConfig.load(args);
+        BasicAuth.configure(config.getProperties());
+        Driver driver = BasicAuth.sharedDriver();
+        int calls = config.getInt("simulator.stream.calls", 20);
+        int fetchSize = config.getInt("simulator.fetch_size", 1000);
+        ReactiveResults reactive = new ReactiveResults(driver, fetchSize);
+        LongAdder consumed = new LongAdder();
+
+        System.out.printf("fetch size %d, %d calls per size%n", fetchSize, calls);
+        System.out.printf("%9s %-9s %10s %10s %10s %14s%n", "records", "api", "p50 ms", "p99 ms", "max ms", "records/s");
+        for (String size : config.get("simulator.stream.sizes", "10,1000,100000").split(",")) {
+            int records = Integer.parseInt(size.trim());
+            Map<String, Object> parameters = parameters("size", records).asMap();
+            for (Api api : Api.values()) {
+                Histogram latencies = new Histogram(3);
+                for (int i = -calls / 4; i < calls; i++) {
+                    long start = System.nanoTime();
+                    switch (api) {
+                        case BLOCKING:
+                            try (Session session = driver.session(SessionConfig.builder().withFetchSize(fetchSize).build())) {
+                                List<String> names = session.readTransaction(tx -> {
+                                    List<String> list = new ArrayList<>();
+                                    Result result = tx.run(QUERY, parameters);
+                                    while (result.hasNext()) {
+                                        list.add(result.next().get(0).asString());
+                                    }
+                                    return list;
+                                });
+                                consumed.add(names.size());
+                            }
+                            break;
+                        case ASYNC:
+                            AsyncSession session = driver.asyncSession(SessionConfig.builder().withFetchSize(fetchSize).build());
+                            session.readTransactionAsync(tx -> tx.runAsync(QUERY, parameters)
+                                    .thenCompose(cursor -> cursor.forEachAsync(record ->
+                                            consumed.add(record.get(0).asString().length()))))
+                                    .thenCompose(summary -> session.closeAsync())
+                                    .toCompletableFuture().join();
+                            break;
+                        case REACTIVE:
+                            reactive.stream(QUERY, parameters, record -> consumed.add(record.get(0).asString().length()))
+                                    .toCompletableFuture().join();
+                            break;
+                    }
+                    if (i >= 0) { latencies.recordValue(System.nanoTime() - start); }
+                }
+                System.out.printf("%9d %-9s %10.3f %10.3f %10.3f %14.0f%n", records, api.name().toLowerCase(),
+                        latencies.getValueAtPercentile(50) / 1e6, latencies.getValueAtPercentile(99) / 1e6,
+                        latencies.getMaxValue() / 1e6, records / (latencies.getMean() / 1e9));
+            }
+        }
+        BasicAuth.closeSharedDriver();
+    }
+}
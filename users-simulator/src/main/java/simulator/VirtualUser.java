@@ -0,0 +1,37 @@
+package simulator;
+
+import java.util.Random;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:24
+ */
+
+/**
+ * State of one simulated user: its own random source and the names it
+ * creates. Person names are unique per user, companies are shared by all
+ * users so that they contend on them.
+ */
+public class VirtualUser {
+
+    private static final int COMPANIES = 16;
+
+    final int id;
+    final Random random;
+    private long sequence;
+
+    public VirtualUser(int id, long seed) {
+        this.id = id;
+        this.random = new Random(seed);
+    }
+
+    String nextPerson() {
+        return "user" + id + "-" + (sequence++);
+    }
+
+    String nextCompany() {
+        return "Company-" + random.nextInt(COMPANIES);
+    }
+}
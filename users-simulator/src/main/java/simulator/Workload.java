@@ -0,0 +1,104 @@
+package simulator;
+
+import org.neo4j.driver.Driver;
+import transactions.CausalReads;
+import transactions.ConsumingResults;
+import transactions.HotKeysTx;
+import transactions.PassingBookMarksEx;
+import transactions.ReactiveResults;
+import transactions.ReadWriteTx;
+import transactions.RetainResults;
+import transactions.RetryPolicy;
+import transactions.RetryingTx;
+import transactions.TxStats;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package simulator
+ * @date 2026/10/19 下午 07:20
+ */
+
+/**
+ * The transaction classes every virtual user shares, all on one driver.
+ */
+public class Workload {
+
+    final Driver driver;
+    final ReadWriteTx readWriteTx;
+    final RetainResults retainResults;
+    final ConsumingResults consumingResults;
+    final PassingBookMarksEx passingBookMarks;
+    final ReactiveResults reactiveResults;
+    final CausalReads causalReads;
+    final BookmarkBoard bookmarks;
+    final HotKeysTx hotKeysTx;
+    final TxStats txStats = new TxStats();
+    final RetryPolicy retryPolicy;
+    final KeyDistribution keys;
+
+    final int batchSize;
+    final int batchParallelism;
+    final int bookmarkFanIn;
+
+    public Workload(Driver driver, SimulatorConfig config) {
+        this.driver = driver;
+        this.batchSize = config.getInt("simulator.batch.size", 100);
+        this.batchParallelism = config.getInt("simulator.batch.parallelism", 4);
+        this.bookmarkFanIn = config.getInt("simulator.bookmark.fan_in", 1);
+        this.readWriteTx = new ReadWriteTx(driver);
+        this.retainResults = new RetainResults(driver);
+        this.consumingResults = new ConsumingResults(driver);
+        this.passingBookMarks = new PassingBookMarksEx();
+        this.reactiveResults = new ReactiveResults(driver, config.getInt("simulator.fetch_size", 1000));
+        this.causalReads = new CausalReads(driver);
+        this.bookmarks = new BookmarkBoard(config.users() * 4);
+        this.retryPolicy = new RetryPolicy(
+                config.getLong("simulator.retry.max_time.ms", config.getLong("neo4j.max_retry_time.ms", 30_000)),
+                RetryPolicy.Backoff.valueOf(config.get("simulator.retry.backoff", "exponential").toUpperCase()),
+                config.getLong("simulator.retry.initial.ms", 1_000),
+                config.getLong("simulator.retry.max_delay.ms", 30_000),
+                config.getDouble("simulator.retry.multiplier", 2.0),
+                config.getDouble("simulator.retry.jitter", 0.2));
+        this.hotKeysTx = new HotKeysTx(driver, new RetryingTx(retryPolicy, txStats));
+        this.keys = KeyDistribution.of(config);
+    }
+
+    /**
+     * Make the company names unique, if the mix has operations on companies.
+     * @param mix: the operation mix of the run
+     */
+    public void createIndexes(OperationMix mix) {
+        for (Operation operation : Operation.values()) {
+            if (operation.usesCompanies() && mix.contains(operation)) {
+                passingBookMarks.createCompanyIndex(driver);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Create the keys of the key distribution, if the mix has operations on them.
+     * @param mix: the operation mix of the run
+     * @return true if the mix uses the keys
+     */
+    public boolean createKeys(OperationMix mix) {
+        boolean used = false;
+        for (Operation operation : Operation.values()) {
+            used |= operation.usesKeys() && mix.contains(operation);
+        }
+        if (!used) { return false; }
+        List<String> names = new ArrayList<>();
+        for (long key = 0; key < keys.count(); key++) {
+            names.add(KeyDistribution.name(key));
+            if (names.size() == 10_000 || key == keys.count() - 1) {
+                hotKeysTx.createKeys(names);
+                names.clear();
+            }
+        }
+        return true;
+    }
+}
@@ -1,5 +1,7 @@
 package transactions;
 
+import authentication.BasicAuth;
+
 /**
  * @author weat0212@gmail.com
  * @project Thesis
@@ -9,6 +11,7 @@ package transactions;
 public class AsynchronousExe {
     public static void main(String[] args) {
         var asyn = new AsynchronousTx();
-        asyn.printAllProducts();
+        asyn.printAllProducts().toCompletableFuture().join();
+        BasicAuth.closeSharedDriver();
     }
 }
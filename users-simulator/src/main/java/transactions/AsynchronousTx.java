@@ -16,8 +16,21 @@ import java.util.concurrent.CompletionStage;
  * @date 2020/8/30 下午 02:00
  */
 public class AsynchronousTx {
+
+    private final Driver driver;
+
+    public AsynchronousTx() {
+        this(BasicAuth.sharedDriver());
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public AsynchronousTx(Driver driver) {
+        this.driver = driver;
+    }
+
     public CompletionStage<ResultSummary> printAllProducts() {
-        Driver driver = new BasicAuth("neo4j://localhost:7687").getDriver();
 
         String query = "MATCH (p:Product) WHERE p.id = $id RETURN p.title";
         Map<String, Object> parameters = Collections.singletonMap("id", 0);
@@ -27,6 +40,6 @@ public class AsynchronousTx {
                                 .thenCompose(cursor -> cursor.forEachAsync(record ->
                                         // asynchronously print every record
                                         System.out.println(record.get(0).asString())))
-        );
+        ).thenCompose(summary -> session.closeAsync().thenApply(ignore -> summary)); // give the connection back to the pool
     }
 }
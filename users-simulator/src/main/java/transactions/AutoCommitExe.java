@@ -1,5 +1,7 @@
 package transactions;
 
+import authentication.BasicAuth;
+
 /**
  * @author weat0212@gmail.com
  * @project Thesis
@@ -9,6 +11,7 @@ package transactions;
 public class AutoCommitExe {
     public static void main(String[] args) {
         var autocommit = new AutoCommitTx();
-        autocommit.readProductTitles();
+        autocommit.readProductTitles().toCompletableFuture().join();
+        BasicAuth.closeSharedDriver();
     }
 }
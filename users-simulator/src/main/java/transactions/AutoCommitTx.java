@@ -16,9 +16,24 @@ import java.util.concurrent.CompletionStage;
  * @date 2020/8/30 下午 02:55
  */
 public class AutoCommitTx {
+
+    private final Driver driver;
+
+    public AutoCommitTx()
+    {
+        this( BasicAuth.sharedDriver() );
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public AutoCommitTx( Driver driver )
+    {
+        this.driver = driver;
+    }
+
     public CompletionStage<List<String>> readProductTitles()
     {
-        Driver driver = new BasicAuth("neo4j://localhost:7687").getDriver();
 
         String query = "MATCH (p:Product) WHERE p.id = $id RETURN p.title";
         Map<String,Object> parameters = Collections.singletonMap( "id", 0 );
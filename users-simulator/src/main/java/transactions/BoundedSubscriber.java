@@ -0,0 +1,82 @@
+package transactions;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 09:05
+ */
+
+/**
+ * Consumes a Publisher with at most `demand` items requested ahead: more
+ * are only requested once the consumer has processed half of them, so a
+ * slow consumer slows the stream down instead of buffering it.
+ * @param <T> type of the items
+ */
+class BoundedSubscriber<T> implements Subscriber<T> {
+
+    private final Consumer<? super T> consumer;
+    private final long demand;
+    private final CompletableFuture<Long> result = new CompletableFuture<>();
+
+    private Subscription subscription;
+    private long outstanding;
+    private long count;
+
+    /**
+     * @param consumer: called for every item, on the publisher's thread
+     * @param demand: maximum number of items requested but not consumed yet
+     */
+    BoundedSubscriber(Consumer<? super T> consumer, long demand) {
+        this.consumer = consumer;
+        this.demand = Math.max(2, demand);
+    }
+
+    /**
+     * @return completes with the number of consumed items once the stream is
+     * complete, or exceptionally if it failed or the consumer threw
+     */
+    CompletionStage<Long> result() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        this.outstanding = demand;
+        subscription.request(demand);
+    }
+
+    @Override
+    public void onNext(T item) {
+        try {
+            consumer.accept(item);
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            result.completeExceptionally(e);
+            return;
+        }
+        count++;
+        if (--outstanding <= demand / 2) {
+            subscription.request(demand - outstanding);
+            outstanding = demand;
+        }
+    }
+
+    @Override
+    public void onError(Throwable error) {
+        result.completeExceptionally(error);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(count);
+    }
+}
@@ -0,0 +1,71 @@
+package transactions;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 10:05
+ */
+
+import authentication.BasicAuth;
+import org.neo4j.driver.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.neo4j.driver.Values.parameters;
+
+/**
+ * Read-your-writes across sessions: a write returns the bookmark of its
+ * session, and a later read in another session passes it (and possibly the
+ * bookmarks of other users) so the server waits until those transactions
+ * are visible before running the read. Without bookmarks the read may run
+ * on a member that has not caught up with the write yet.
+ */
+public class CausalReads {
+
+    final Driver driver;
+
+    public CausalReads(){
+        this(BasicAuth.sharedDriver());
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public CausalReads(Driver driver){
+        this.driver = driver;
+    }
+
+    /**
+     * @param name: name of the person to create
+     * @return the bookmark of the write
+     */
+    public Bookmark write(final String name) {
+        try (Session session = driver.session(SessionConfig.builder().withDefaultAccessMode(AccessMode.WRITE).build())) {
+            session.writeTransaction(tx -> tx.run("CREATE (:Person {name: $name})", parameters("name", name)).consume());
+            return session.lastBookmark();
+        }
+    }
+
+    /**
+     * @param name: name of the person to look up
+     * @param bookmarks: bookmarks the read has to wait for, empty for an unbookmarked read
+     * @return true if the read saw the person
+     */
+    public boolean read(final String name, final List<Bookmark> bookmarks) {
+        try (Session session = driver.session(SessionConfig.builder().withDefaultAccessMode(AccessMode.READ)
+                .withBookmarks(bookmarks).build())) {
+            return session.readTransaction(tx -> tx.run("MATCH (a:Person {name: $name}) RETURN count(a)",
+                    parameters("name", name)).single().get(0).asLong() > 0);
+        }
+    }
+
+    /**
+     * @param name: name of the person to look up
+     * @return true if the read saw the person
+     */
+    public boolean read(final String name) {
+        return read(name, Collections.emptyList());
+    }
+}
@@ -15,10 +15,24 @@ import java.util.List;
  * @date 2020/8/30 下午 01:03
  */
 public class ConsumingResults {
-    public List<String> getPeople()
+
+    private final Driver driver;
+
+    public ConsumingResults()
+    {
+        this( BasicAuth.sharedDriver() );
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public ConsumingResults( Driver driver )
     {
-        Driver driver = new BasicAuth("neo4j://localhost:7687").getDriver();
+        this.driver = driver;
+    }
 
+    public List<String> getPeople()
+    {
         try ( Session session = driver.session() )
         {
             return session.readTransaction( tx -> {
@@ -32,8 +46,5 @@ public class ConsumingResults {
             } );
 
         }
-        finally {
-            driver.close();
-        }
     }
 }
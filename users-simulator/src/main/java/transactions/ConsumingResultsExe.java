@@ -1,5 +1,7 @@
 package transactions;
 
+import authentication.BasicAuth;
+
 import java.util.List;
 
 /**
@@ -13,5 +15,6 @@ public class ConsumingResultsExe {
         ConsumingResults results = new ConsumingResults();
         List<String> list = results.getPeople();
         for (String s : list) System.out.println(s);
+        BasicAuth.closeSharedDriver();
     }
 }
@@ -13,17 +13,11 @@ import org.neo4j.driver.Driver;
 import org.neo4j.driver.Session;
 import org.neo4j.driver.SessionConfig;
 
-import java.util.Scanner;
 
 public class DBSelectOnCreate {
 
     public static void main(String[] args) {
-        Driver driver;
-
-        System.out.print("Password:");
-        Scanner scn = new Scanner(System.in);
-        String password = scn.nextLine();
-        driver = new <Driver>BasicAuth("neo4j://localhost:7687", "neo4j", password).getDriver();
+        Driver driver = BasicAuth.sharedDriver();
 
         try (
                 Session session = driver.session(SessionConfig.forDatabase("neo4j"))) {
@@ -41,6 +35,6 @@ public class DBSelectOnCreate {
             ).asString();
             System.out.println(msg);
         }
-        driver.close();
+        BasicAuth.closeSharedDriver();
     }
 }
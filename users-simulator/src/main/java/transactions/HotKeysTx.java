@@ -0,0 +1,117 @@
+package transactions;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 10:50
+ */
+
+import authentication.BasicAuth;
+import org.neo4j.driver.*;
+
+import java.util.List;
+
+import static org.neo4j.driver.SessionConfig.builder;
+import static org.neo4j.driver.Values.parameters;
+
+/**
+ * ReadWriteTx and PassingBookMarksEx shaped transactions on keys chosen by
+ * the caller, instead of fixed names, so that many users contend on the
+ * same nodes. The write transactions run through RetryingTx, which counts
+ * the attempts and classifies why they failed.
+ */
+public class HotKeysTx {
+
+    final Driver driver;
+    final RetryingTx retryingTx;
+
+    public HotKeysTx(){
+        this(BasicAuth.sharedDriver(), new RetryingTx(RetryPolicy.defaults(), new TxStats()));
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     * @param retryingTx: runs and retries the write transactions
+     */
+    public HotKeysTx(Driver driver, RetryingTx retryingTx){
+        this.driver = driver;
+        this.retryingTx = retryingTx;
+    }
+
+    /**
+     * Create the index on person names and the persons named by the keys
+     * that do not exist yet.
+     * @param names: key names to create
+     */
+    public void createKeys(final List<String> names) {
+        try (Session session = driver.session()) {
+            boolean indexed = session.run("CALL db.indexes() YIELD labelsOrTypes, properties " +
+                    "WHERE labelsOrTypes = ['Person'] AND properties = ['name'] RETURN count(*) > 0").single().get(0).asBoolean();
+            if (!indexed) { session.run("CREATE INDEX person_name FOR (a:Person) ON (a.name)").consume(); }
+            session.writeTransaction(tx -> tx.run("UNWIND $names AS name MERGE (:Person {name: name})",
+                    parameters("names", names)).consume());
+        }
+    }
+
+    /**
+     * ReadWriteTx shape: update a person, then read it back.
+     * @param name: key of the person
+     * @return number of updates of the person, 0 if there is no such
+     * person, e.g. a key whose insertKey failed
+     */
+    public long updateKey(final String name) {
+        try (Session session = driver.session(builder().withDefaultAccessMode(AccessMode.WRITE).build())) {
+            retryingTx.execute(session, tx -> update(tx, name));
+            return session.readTransaction(tx -> tx.run("MATCH (a:Person {name: $name}) RETURN a.updates",
+                    parameters("name", name)).stream().findFirst().map(r -> r.get(0).asLong(0)).orElse(0L));
+        }
+    }
+
+    /**
+     * PassingBookMarksEx shape: update two persons in one transaction, in
+     * the given order, and make them friends; then count the friends in a
+     * session chained on its bookmark. Two users linking the same keys in
+     * opposite orders can deadlock.
+     * @param name1: key updated first
+     * @param name2: key updated second
+     * @return number of friends of name1
+     */
+    public long linkKeys(final String name1, final String name2) {
+        Bookmark bookmark;
+        try (Session session = driver.session(builder().withDefaultAccessMode(AccessMode.WRITE).build())) {
+            retryingTx.execute(session, tx -> {
+                update(tx, name1);
+                update(tx, name2);
+                return tx.run("MATCH (a:Person {name: $name1}) MATCH (b:Person {name: $name2}) MERGE (a)-[:KNOWS]->(b)",
+                        parameters("name1", name1, "name2", name2)).consume();
+            });
+            bookmark = session.lastBookmark();
+        }
+        try (Session session = driver.session(builder().withBookmarks(bookmark).build())) {
+            return session.readTransaction(tx -> tx.run("MATCH (:Person {name: $name})-[:KNOWS]->(b) RETURN count(b)",
+                    parameters("name", name1)).single().get(0).asLong());
+        }
+    }
+
+    /**
+     * @param name: key of a new person
+     */
+    public void insertKey(final String name) {
+        try (Session session = driver.session(builder().withDefaultAccessMode(AccessMode.WRITE).build())) {
+            retryingTx.execute(session, tx -> tx.run("CREATE (:Person {name: $name})", parameters("name", name)).consume());
+        }
+    }
+
+    /**
+     * @return attempts, failures and latencies of the write transactions
+     */
+    public TxStats getStats() {
+        return retryingTx.getStats();
+    }
+
+    private static Object update(Transaction tx, String name) {
+        return tx.run("MATCH (a:Person {name: $name}) SET a.updates = coalesce(a.updates, 0) + 1",
+                parameters("name", name)).consume();
+    }
+}
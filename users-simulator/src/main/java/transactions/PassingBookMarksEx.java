@@ -9,18 +9,20 @@ package transactions;
 
 import authentication.BasicAuth;
 import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.exceptions.ClientException;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Scanner;
 
 import static org.neo4j.driver.SessionConfig.builder;
 import static org.neo4j.driver.Values.parameters;
 
 public class PassingBookMarksEx {
-    // Create a company node
+    // Create a company node, unless one with the name exists: the users
+    // share a few company names
     private Result addCompany(final Transaction tx, final String name) {
-        return tx.run("CREATE (:Company {name: $name})", parameters("name", name));
+        return tx.run("MERGE (:Company {name: $name})", parameters("name", name));
     }
 
     // Create a person node
@@ -54,37 +56,70 @@ public class PassingBookMarksEx {
         return result;
     }
 
+    // Count the friendships of one person.
+    private long countFriends(final Transaction tx, final String person) {
+        return tx.run("MATCH (:Person {name: $person_name})-[:KNOWS]->(b) RETURN count(b)",
+                parameters("person_name", person)).single().get(0).asLong();
+    }
+
+    /**
+     * Make the company names unique. The constraint is backed by an index,
+     * so addCompany and employ find a company without scanning all of them,
+     * and concurrent MERGEs of one name create a single company. If earlier
+     * runs already left duplicates, only a plain index is created.
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public void createCompanyIndex(Driver driver) {
+        try (Session session = driver.session()) {
+            boolean indexed = session.run("CALL db.indexes() YIELD labelsOrTypes, properties " +
+                    "WHERE labelsOrTypes = ['Company'] AND properties = ['name'] RETURN count(*) > 0").single().get(0).asBoolean();
+            if (indexed) { return; }
+            try {
+                session.run("CREATE CONSTRAINT company_name ON (c:Company) ASSERT c.name IS UNIQUE").consume();
+            } catch (ClientException e) {
+                System.err.println("Company names are not unique, indexing them only: " + e.getMessage());
+                session.run("CREATE INDEX company_name FOR (c:Company) ON (c.name)").consume();
+            }
+        }
+    }
+
     public void addEmployAndMakeFriends() {
+        addEmployAndMakeFriends(BasicAuth.sharedDriver(), "Alice", "Wayne Enterprises", "Bob", "LexCorp", this::printFriends);
+    }
+
+    /**
+     * The same flow for any two people and companies, on a driver shared
+     * with other users.
+     * @param driver: a driver shared with other users, not closed here
+     * @return the number of friendships of person1 read after the bookmarks
+     */
+    public long addEmployAndMakeFriends(Driver driver, String person1, String company1,
+                                        String person2, String company2) {
+        return addEmployAndMakeFriends(driver, person1, company1, person2, company2,
+                tx -> countFriends(tx, person1));
+    }
+
+    private <T> T addEmployAndMakeFriends(Driver driver, String person1, String company1,
+                                          String person2, String company2, TransactionWork<T> read) {
         // To collect the session bookmarks
         List<Bookmark> savedBookmarks = new ArrayList<>();
         // Create the first person and employment relationship.
-
-        // Authentication set up directly
-        final Driver driver;
-        System.out.print("Password:");
-        Scanner scn = new Scanner(System.in);
-        String password = scn.nextLine();
-//        driver = GraphDatabase.driver("neo4j://localhost:7687", AuthTokens.basic("neo4j", password));
-        driver = new <Driver>BasicAuth("neo4j://localhost:7687","neo4j", password).getDriver();
-
         try (Session session1 = driver.session(builder().withDefaultAccessMode(AccessMode.WRITE).build())) {
-            session1.writeTransaction(tx -> addCompany(tx, "Wayne Enterprises"));
-            session1.writeTransaction(tx -> addPerson(tx, "Alice"));
-            session1.writeTransaction(tx -> employ(tx, "Alice", "Wayne Enterprises"));
+            session1.writeTransaction(tx -> addCompany(tx, company1));
+            session1.writeTransaction(tx -> addPerson(tx, person1));
+            session1.writeTransaction(tx -> employ(tx, person1, company1));
             savedBookmarks.add(session1.lastBookmark());
         } // Create the second person and employment relationship.
         try (Session session2 = driver.session(builder().withDefaultAccessMode(AccessMode.WRITE).build())) {
-            session2.writeTransaction(tx -> addCompany(tx, "LexCorp"));
-            session2.writeTransaction(tx -> addPerson(tx, "Bob"));
-            session2.writeTransaction(tx -> employ(tx, "Bob", "LexCorp"));
+            session2.writeTransaction(tx -> addCompany(tx, company2));
+            session2.writeTransaction(tx -> addPerson(tx, person2));
+            session2.writeTransaction(tx -> employ(tx, person2, company2));
             savedBookmarks.add(session2.lastBookmark());
         } // Create a friendship between the two people created above.
         try (Session session3 = driver.session(builder().withDefaultAccessMode(AccessMode.WRITE).withBookmarks(savedBookmarks).build())) {
-            session3.writeTransaction(tx -> makeFriends(tx, "Alice", "Bob"));
-            session3.readTransaction(this::printFriends);
+            session3.writeTransaction(tx -> makeFriends(tx, person1, person2));
+            return session3.readTransaction(read);
         }
-
-        driver.close();
     }
 
 }
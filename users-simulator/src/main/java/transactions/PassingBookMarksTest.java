@@ -1,5 +1,7 @@
 package transactions;
 
+import authentication.BasicAuth;
+
 /**
  * @author weat0212@gmail.com
  * @project Thesis
@@ -10,5 +12,6 @@ public class PassingBookMarksTest {
     public static void main(String[] args) {
         PassingBookMarksEx passingBookMarksEx = new PassingBookMarksEx();
         passingBookMarksEx.addEmployAndMakeFriends();
+        BasicAuth.closeSharedDriver();
     }
 }
@@ -0,0 +1,79 @@
+package transactions;
+
+import authentication.BasicAuth;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.reactive.RxSession;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 09:12
+ */
+
+/**
+ * Reactive counterpart of ConsumingResults: the records are streamed through
+ * an RxSession instead of being collected into a list. The server sends
+ * fetchSize records per pull and the subscriber keeps at most fetchSize of
+ * them in flight, so memory stays bounded whatever the size of the result.
+ */
+public class ReactiveResults {
+
+    private final Driver driver;
+    private final int fetchSize;
+
+    public ReactiveResults()
+    {
+        this( BasicAuth.sharedDriver(), 1000 );
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     * @param fetchSize: records per pull from the server, and records requested ahead
+     */
+    public ReactiveResults( Driver driver, int fetchSize )
+    {
+        this.driver = driver;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * @param consumer: called for every person name, in name order
+     * @return completes with the number of names once they are all consumed
+     */
+    public CompletionStage<Long> getPeople( Consumer<String> consumer )
+    {
+        return stream( "MATCH (a:Person) RETURN a.name ORDER BY a.name", Collections.emptyMap(),
+                record -> consumer.accept( record.get( 0 ).asString() ) );
+    }
+
+    /**
+     * Stream the records of a read query.
+     * @param query: a read query
+     * @param parameters: query parameters
+     * @param consumer: called for every record, on a driver thread
+     * @return completes with the number of records after the session is closed
+     */
+    public CompletionStage<Long> stream( String query, Map<String,Object> parameters, Consumer<Record> consumer )
+    {
+        RxSession session = driver.rxSession( SessionConfig.builder().withFetchSize( fetchSize ).build() );
+        BoundedSubscriber<Record> records = new BoundedSubscriber<>( consumer, fetchSize );
+        session.readTransaction( tx -> tx.run( query, parameters ).records() ).subscribe( records );
+
+        // Close the session whatever the outcome, then pass the outcome on
+        return records.result().handle( ( count, error ) -> {
+            BoundedSubscriber<Object> closed = new BoundedSubscriber<>( ignore -> {}, 2 );
+            session.close().subscribe( closed );
+            return closed.result().thenCompose( ignore -> error == null ?
+                    CompletableFuture.completedFuture( count ) : CompletableFuture.<Long>failedFuture( error ) );
+        } ).thenCompose( stage -> stage );
+    }
+}
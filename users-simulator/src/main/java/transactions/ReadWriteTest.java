@@ -1,5 +1,7 @@
 package transactions;
 
+import authentication.BasicAuth;
+
 /**
  * @author weat0212@gmail.com
  * @project Thesis
@@ -11,6 +13,6 @@ public class ReadWriteTest {
         ReadWriteTx readWriteTx = new ReadWriteTx();
         Long temp = readWriteTx.addPerson("Andy");
         System.out.println("<id>:"+temp);
-        readWriteTx.driver.close();
+        BasicAuth.closeSharedDriver();
     }
 }
@@ -10,8 +10,6 @@ package transactions;
 import authentication.BasicAuth;
 import org.neo4j.driver.*;
 
-import java.util.Scanner;
-
 import static org.neo4j.driver.Values.parameters;
 
 public class ReadWriteTx {
@@ -19,10 +17,14 @@ public class ReadWriteTx {
     final Driver driver;
 
     public ReadWriteTx(){
-        System.out.print("Password:");
-        Scanner scn = new Scanner(System.in);
-        String password = scn.nextLine();
-        driver = new <Driver>BasicAuth("neo4j://localhost:7687","neo4j", password).getDriver();
+        this(BasicAuth.sharedDriver());
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public ReadWriteTx(Driver driver){
+        this.driver = driver;
     }
 
     public long addPerson(final String name) {
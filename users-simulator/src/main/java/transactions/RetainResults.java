@@ -2,8 +2,17 @@ package transactions;
 
 import authentication.BasicAuth;
 import org.neo4j.driver.*;
+import org.neo4j.driver.Record;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.neo4j.driver.Values.parameters;
 
@@ -14,10 +23,24 @@ import static org.neo4j.driver.Values.parameters;
  * @date 2020/8/30 下午 01:36
  */
 public class RetainResults {
-    public int addEmployees( final String companyName )
+
+    private final Driver driver;
+
+    public RetainResults()
+    {
+        this( BasicAuth.sharedDriver() );
+    }
+
+    /**
+     * @param driver: a driver shared with other users, not closed here
+     */
+    public RetainResults( Driver driver )
     {
-        Driver driver = new BasicAuth("neo4j://localhost:7687").getDriver();
+        this.driver = driver;
+    }
 
+    public int addEmployees( final String companyName )
+    {
         try ( Session session = driver.session() )
         {
             int employees = 0;
@@ -48,10 +71,100 @@ public class RetainResults {
             }
             return employees;
         }
-        finally {
-            driver.close();
+    }
+
+    /**
+     * Batched addEmployees: the names are sent in chunks, one write
+     * transaction per chunk with UNWIND, instead of one transaction per
+     * person. The company is merged once up front, so chunks running in
+     * parallel sessions cannot create it twice.
+     * @param companyName: company every person gets employed by
+     * @param chunkSize: number of names per write transaction
+     * @param parallelism: number of sessions writing chunks concurrently
+     * @return the number of persons employed
+     */
+    public int addEmployeesBatched( final String companyName, int chunkSize, int parallelism )
+    {
+        List<String> names;
+        try ( Session session = driver.session() )
+        {
+            names = session.readTransaction( tx -> {
+                List<String> list = new ArrayList<>();
+                for ( Record person : matchPersonNodes( tx ) )
+                {
+                    list.add( person.get( "name" ).asString() );
+                }
+                return list;
+            } );
+            session.writeTransaction( tx -> tx.run( "MERGE (:Company {name: $company_name})",
+                    parameters( "company_name", companyName ) ).consume() );
+        }
+
+        List<List<String>> chunks = new ArrayList<>();
+        for ( int i = 0; i < names.size(); i += chunkSize )
+        {
+            chunks.add( names.subList( i, Math.min( i + chunkSize, names.size() ) ) );
+        }
+
+        // Every session takes the next chunk until none is left
+        AtomicInteger next = new AtomicInteger();
+        Callable<Integer> writer = () -> {
+            int employees = 0;
+            try ( Session session = driver.session() )
+            {
+                int chunk;
+                while ( ( chunk = next.getAndIncrement() ) < chunks.size() )
+                {
+                    List<String> batch = chunks.get( chunk );
+                    employees += session.writeTransaction( tx -> tx.run(
+                            "MATCH (com:Company {name: $company_name}) " +
+                                    "UNWIND $batch AS name " +
+                                    "MATCH (emp:Person {name: name}) " +
+                                    "MERGE (emp)-[:WORKS_FOR]->(com) " +
+                                    "RETURN count(emp)",
+                            parameters( "batch", batch, "company_name", companyName ) ).single().get( 0 ).asInt() );
+                }
+            }
+            return employees;
+        };
+
+        int sessions = Math.max( 1, Math.min( parallelism, chunks.size() ) );
+        if ( sessions == 1 )
+        {
+            try
+            {
+                return writer.call();
+            }
+            catch ( Exception e )
+            {
+                throw e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException( e );
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool( sessions );
+        try
+        {
+            int employees = 0;
+            for ( Future<Integer> result : executor.invokeAll( Collections.nCopies( sessions, writer ) ) )
+            {
+                employees += result.get();
+            }
+            return employees;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( e );
+        }
+        catch ( ExecutionException e )
+        {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException( e.getCause() );
+        }
+        finally
+        {
+            executor.shutdown();
         }
     }
+
     private static List<Record> matchPersonNodes( Transaction tx )
     {
         return tx.run( "MATCH (a:Person) RETURN a.name AS name" ).list();
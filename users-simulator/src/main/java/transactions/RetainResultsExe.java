@@ -1,5 +1,7 @@
 package transactions;
 
+import authentication.BasicAuth;
+
 /**
  * @author weat0212@gmail.com
  * @project Thesis
@@ -10,5 +12,6 @@ public class RetainResultsExe {
     public static void main(String[] args) {
         var result = new RetainResults();
         result.addEmployees("Acer");
+        BasicAuth.closeSharedDriver();
     }
 }
@@ -0,0 +1,91 @@
+package transactions;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 11:20
+ */
+
+/**
+ * How long RetryingTx keeps retrying a transaction after transient
+ * failures, and how long it waits between attempts:
+ * <ul>
+ *     <li>none: retry at once</li>
+ *     <li>fixed: wait the initial delay every time</li>
+ *     <li>exponential: multiply the delay after every retry, up to the
+ *     maximum delay (the driver's own strategy: 1 s, x2, 20% jitter)</li>
+ * </ul>
+ * Every delay is spread by +/- jitter so that the users that failed
+ * together do not all retry at the same moment.
+ */
+public class RetryPolicy {
+
+    public enum Backoff { NONE, FIXED, EXPONENTIAL }
+
+    private final long maxRetryTimeNanos;
+    private final Backoff backoff;
+    private final long initialDelayNanos;
+    private final long maxDelayNanos;
+    private final double multiplier;
+    private final double jitter;
+
+    /**
+     * @param maxRetryTimeMillis: no retry starts after this time since the first attempt
+     * @param backoff: the backoff strategy
+     * @param initialDelayMillis: delay before the first retry
+     * @param maxDelayMillis: upper bound of exponential delays
+     * @param multiplier: growth of exponential delays per retry
+     * @param jitter: relative spread of every delay, 0 to 1
+     */
+    public RetryPolicy(long maxRetryTimeMillis, Backoff backoff, long initialDelayMillis,
+                       long maxDelayMillis, double multiplier, double jitter) {
+        this.maxRetryTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxRetryTimeMillis);
+        this.backoff = backoff;
+        this.initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(initialDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    /**
+     * @return the driver's default: 30 s, exponential from 1 s, x2, 20% jitter
+     */
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(30_000, Backoff.EXPONENTIAL, 1_000, 30_000, 2.0, 0.2);
+    }
+
+    /**
+     * @param retry: 1 for the first retry
+     * @param random: random source of the jitter
+     * @return nanoseconds to wait before the retry
+     */
+    public long delayNanos(int retry, Random random) {
+        double delay;
+        switch (backoff) {
+            case NONE:
+                return 0;
+            case FIXED:
+                delay = initialDelayNanos;
+                break;
+            default:
+                delay = Math.min(maxDelayNanos, initialDelayNanos * Math.pow(multiplier, retry - 1));
+        }
+        return (long) (delay * (1 + jitter * (2 * random.nextDouble() - 1)));
+    }
+
+    public long getMaxRetryTimeNanos() {
+        return maxRetryTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s backoff from %d ms (x%.1f, max %d ms, jitter %.0f%%), give up after %d ms",
+                backoff.name().toLowerCase(), TimeUnit.NANOSECONDS.toMillis(initialDelayNanos), multiplier,
+                TimeUnit.NANOSECONDS.toMillis(maxDelayNanos), jitter * 100,
+                TimeUnit.NANOSECONDS.toMillis(maxRetryTimeNanos));
+    }
+}
@@ -0,0 +1,80 @@
+package transactions;
+
+import org.neo4j.driver.Session;
+import org.neo4j.driver.Transaction;
+import org.neo4j.driver.TransactionWork;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 11:30
+ */
+
+/**
+ * Runs transaction functions like session.writeTransaction, but retries
+ * them itself so that every attempt is seen: it records attempts and
+ * the cause of every failure in TxStats, and waits between attempts as
+ * the RetryPolicy says.
+ */
+public class RetryingTx {
+
+    private final RetryPolicy policy;
+    private final TxStats stats;
+
+    /**
+     * @param policy: retry time budget and backoff
+     * @param stats: where attempts and latencies are recorded, may be shared
+     */
+    public RetryingTx(RetryPolicy policy, TxStats stats) {
+        this.policy = policy;
+        this.stats = stats;
+    }
+
+    /**
+     * Run the work in explicit transactions of the session, in its default
+     * access mode, until one commits, the failure is not retryable, or the
+     * retry time is over.
+     * @param session: an open session, not closed here
+     * @param work: the transaction function, may run several times
+     * @return the result of the committed attempt
+     */
+    public <T> T execute(Session session, TransactionWork<T> work) {
+        long start = System.nanoTime();
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            stats.attempt();
+            long attemptStart = System.nanoTime();
+            try (Transaction tx = session.beginTransaction()) {
+                T result = work.execute(tx);
+                tx.commit();
+                stats.committed(attempt, System.nanoTime() - start, attemptStart - start);
+                return result;
+            } catch (RuntimeException e) {
+                TxStats.Cause cause = TxStats.Cause.of(e);
+                stats.failed(cause);
+                long delay = policy.delayNanos(attempt, ThreadLocalRandom.current());
+                if (!cause.isRetryable() || System.nanoTime() + delay - start > policy.getMaxRetryTimeNanos()) {
+                    stats.gaveUp();
+                    throw e;
+                }
+                long retryAt = System.nanoTime() + delay;
+                while (retryAt - System.nanoTime() > 0) {
+                    LockSupport.parkNanos(retryAt - System.nanoTime());
+                }
+            }
+        }
+    }
+
+    public TxStats getStats() {
+        return stats;
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
+    }
+}
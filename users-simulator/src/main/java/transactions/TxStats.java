@@ -0,0 +1,144 @@
+package transactions;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.neo4j.driver.exceptions.ServiceUnavailableException;
+import org.neo4j.driver.exceptions.SessionExpiredException;
+import org.neo4j.driver.exceptions.TransientException;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @author weat0212@gmail.com
+ * @project Thesis
+ * @package transactions
+ * @date 2026/10/19 下午 11:25
+ */
+
+/**
+ * Attempts and failures of the transactions run by RetryingTx. Latency of
+ * transactions that committed at the first attempt is kept apart from
+ * the latency of those that needed retries, and the time lost to failed
+ * attempts and backoff is recorded on its own.
+ */
+public class TxStats {
+
+    /**
+     * Why an attempt failed. Only OTHER is not retried.
+     */
+    public enum Cause {
+        DEADLOCK, LOCK_TIMEOUT, LEADER_SWITCH, UNAVAILABLE, TRANSIENT, OTHER;
+
+        /**
+         * @param e: failure of an attempt
+         * @return the cause, classified as the driver decides what to retry
+         */
+        public static Cause of(Throwable e) {
+            if (e instanceof TransientException) {
+                String code = ((TransientException) e).code();
+                switch (code) {
+                    case "Neo.TransientError.Transaction.DeadlockDetected":
+                        return DEADLOCK;
+                    case "Neo.TransientError.Transaction.LockAcquisitionTimeout":
+                        return LOCK_TIMEOUT;
+                    case "Neo.TransientError.Transaction.Terminated":
+                    case "Neo.TransientError.Transaction.LockClientStopped":
+                        return OTHER;
+                    default:
+                        return TRANSIENT;
+                }
+            }
+            // A routing driver reports writes sent to a member that is no longer the leader this way
+            if (e instanceof SessionExpiredException) { return LEADER_SWITCH; }
+            if (e instanceof ServiceUnavailableException) { return UNAVAILABLE; }
+            return OTHER;
+        }
+
+        public boolean isRetryable() {
+            return this != OTHER;
+        }
+    }
+
+    private final LongAdder committed = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final Map<Cause, LongAdder> failures = new EnumMap<>(Cause.class);
+    private final Histogram firstAttempt = new ConcurrentHistogram(3);
+    private final Histogram retried = new ConcurrentHistogram(3);
+    private final Histogram retryOverhead = new ConcurrentHistogram(3);
+
+    public TxStats() {
+        for (Cause cause : Cause.values()) {
+            failures.put(cause, new LongAdder());
+        }
+    }
+
+    void attempt() {
+        attempts.increment();
+    }
+
+    void failed(Cause cause) {
+        failures.get(cause).increment();
+    }
+
+    /**
+     * @param attempts: attempts of the transaction, the last one committed
+     * @param latencyNanos: from the first attempt to the commit
+     * @param overheadNanos: time of the failed attempts and the backoff
+     */
+    void committed(int attempts, long latencyNanos, long overheadNanos) {
+        committed.increment();
+        if (attempts == 1) {
+            firstAttempt.recordValue(latencyNanos);
+        } else {
+            retried.recordValue(latencyNanos);
+            retryOverhead.recordValue(overheadNanos);
+        }
+    }
+
+    void gaveUp() {
+        gaveUp.increment();
+    }
+
+    public long getCommitted() {
+        return committed.sum();
+    }
+
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getFailures(Cause cause) {
+        return failures.get(cause).sum();
+    }
+
+    /**
+     * Print attempts, failures per cause, and the latencies in milliseconds.
+     * @param out: where the report is printed
+     */
+    public void report(PrintStream out) {
+        long transactions = getCommitted() + gaveUp.sum();
+        if (transactions == 0) { return; }
+        long retries = getAttempts() - transactions;
+        out.printf("transactions: %d committed, %d gave up, %d retries (%.3f per transaction)%n",
+                getCommitted(), gaveUp.sum(), retries, (double) retries / transactions);
+        out.print("failed attempts:");
+        for (Cause cause : Cause.values()) {
+            out.printf(" %s %d", cause.name().toLowerCase(), getFailures(cause));
+        }
+        out.println();
+        out.printf("%-16s %9s %9s %9s %9s %9s%n", "latency", "count", "mean", "p50", "p99", "max");
+        row(out, "first attempt", firstAttempt);
+        row(out, "retried", retried);
+        row(out, "retry overhead", retryOverhead);
+    }
+
+    private static void row(PrintStream out, String name, Histogram histogram) {
+        out.printf("%-16s %9d %9.3f %9.3f %9.3f %9.3f%n", name, histogram.getTotalCount(),
+                histogram.getMean() / 1e6, histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(99) / 1e6, histogram.getMaxValue() / 1e6);
+    }
+}